@@ -0,0 +1,15 @@
+package com.siemens.internship.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class ReactiveInternshipApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveInternshipApplication.class, args);
+	}
+
+}
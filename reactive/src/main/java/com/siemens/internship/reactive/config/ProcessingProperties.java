@@ -0,0 +1,24 @@
+package com.siemens.internship.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning knobs for item processing, bound from the "item.processing.*" properties (same names as the servlet app)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.processing")
+public class ProcessingProperties {
+
+    /**
+     * Number of items read and written together by the chunked processing stream
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Items written at the same time by the per-item processing; keep it at or below the R2DBC pool size
+     */
+    private int concurrency = 10;
+}
@@ -0,0 +1,129 @@
+package com.siemens.internship.reactive.controller;
+
+import com.siemens.internship.reactive.dto.ItemCreateDTO;
+import com.siemens.internship.reactive.dto.ItemUpdateDTO;
+import com.siemens.internship.reactive.exception.ItemNotFoundException;
+import com.siemens.internship.reactive.model.Item;
+import com.siemens.internship.reactive.service.ItemService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same /api/items contract as the servlet ItemController (paths, parameters, status codes and bodies)
+ * for the CRUD, paging, streaming and processing endpoints
+ */
+@RestController
+@RequestMapping("/api/items")
+public class ItemController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+
+    @Autowired
+    private ItemService itemService;
+
+
+    /**
+     * Without parameters returns the whole list, with "after" and/or "limit" one keyset page ordered by id
+     * When the page is full, the X-Next-After header carries the cursor for the next page
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllItems(@RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return itemService.findAll().collectList()
+                    .map(items -> new ResponseEntity<>(items, HttpStatus.OK));
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(List.of("Limit must be between 1 and " + MAX_PAGE_SIZE)));
+        }
+
+        return itemService.findPage(after, pageSize).collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+                    if (page.size() == pageSize) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+                    }
+                    return response.body(page);
+                });
+    }
+
+    /**
+     * Streams every item as NDJSON, written as rows arrive from the database
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Item> streamAllItems() {
+        return itemService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Item>> getItemById(@PathVariable Long id) {
+        return itemService.findById(id)
+                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/process")
+    public Mono<ResponseEntity<?>> processItems() {
+        return itemService.processItems().collectList()
+                .<ResponseEntity<?>>map(processed -> new ResponseEntity<>(processed, HttpStatus.OK))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Processing failed: " + e.getMessage())));
+    }
+
+    /**
+     * Chunked processing as NDJSON: a ProcessingProgress record per chunk, then the ProcessingReport
+     * On failure an {"error": "Processing failed: ..."} record is emitted instead of the report
+     */
+    @GetMapping(value = "/process/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> processItemsStream() {
+        return itemService.processItemsInChunks()
+                .onErrorResume(e -> Mono.just(Map.of("error", "Processing failed: " + e.getMessage())));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Item>> createItem(@Valid @RequestBody ItemCreateDTO dto) {
+        return itemService.save(dto)
+                .map(item -> ResponseEntity.status(HttpStatus.CREATED).body(item));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateItem(@PathVariable Long id, @Valid @RequestBody ItemUpdateDTO dto) {
+        return itemService.updateItem(id, dto)
+                .<ResponseEntity<?>>map(item -> ResponseEntity.status(HttpStatus.OK).body(item))
+                .onErrorResume(ItemNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteItem(@PathVariable Long id) {
+        return itemService.deleteById(id)
+                .map(deleted -> new ResponseEntity<Void>(deleted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Validation errors of a request body: 400 with the list of messages, as in the servlet app
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<List<String>> handleValidationErrors(WebExchangeBindException e) {
+        List<String> errors = e.getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .toList();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress record emitted after every chunk of the processing stream (same shape as in the servlet app)
+ */
+@Getter
+@AllArgsConstructor
+public class ProcessingProgress {
+
+    private int chunk;
+
+    private int chunkSize;
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private Long lastId;
+}
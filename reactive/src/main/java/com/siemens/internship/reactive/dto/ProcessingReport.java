@@ -0,0 +1,28 @@
+package com.siemens.internship.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Final record of the processing stream: counts, elapsed time and throughput
+ */
+@Getter
+@AllArgsConstructor
+public class ProcessingReport {
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private int chunkCount;
+
+    private long elapsedMillis;
+
+    private double rowsPerSecond;
+
+    public static ProcessingReport of(long processedCount, long failedCount, int chunkCount, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? processedCount / seconds : 0;
+        return new ProcessingReport(processedCount, failedCount, chunkCount, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
@@ -0,0 +1,69 @@
+package com.siemens.internship.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the item table; same JSON representation as the JPA entity of the servlet app
+ */
+@Table("item")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Item {
+
+    public static final String PROCESSED_STATUS = "PROCESSED";
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private String status;
+
+    private String email;
+
+    /**
+     * 0 = pending, 1 = processed; derived from status by setStatus
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column("processing_state")
+    private int processingState;
+
+    @JsonIgnore
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @JsonIgnore
+    @Column("updated_at")
+    private Instant updatedAt;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.email = email;
+        setStatus(status);
+    }
+
+    /**
+     * Sets the free-text status and keeps the processing flag in sync with it
+     */
+    public void setStatus(String status) {
+        this.status = status;
+        this.processingState = PROCESSED_STATUS.equals(status) ? 1 : 0;
+    }
+}
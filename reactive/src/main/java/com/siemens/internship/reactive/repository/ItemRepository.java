@@ -0,0 +1,47 @@
+package com.siemens.internship.reactive.repository;
+
+import com.siemens.internship.reactive.model.Item;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ItemRepository extends ReactiveCrudRepository<Item, Long> {
+
+    /**
+     * Keyset page of items: only ids greater than afterId, in ascending id order
+     */
+    @Query("SELECT * FROM item WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Item> findPage(Long afterId, int limit);
+
+    @Query("SELECT * FROM item ORDER BY id")
+    Flux<Item> findAllOrderedById();
+
+    /**
+     * Keyset page of unprocessed items (index range scan on (processing_state, id))
+     */
+    @Query("SELECT * FROM item WHERE processing_state = 0 AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Item> findUnprocessedAfter(Long afterId, int limit);
+
+    @Query("SELECT id FROM item WHERE processing_state = 0 AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Long> findUnprocessedIdsAfter(Long afterId, int limit);
+
+    /**
+     * Marks the given items as PROCESSED with a single set-based UPDATE; returns the number of affected rows
+     * Items that are already processed are not touched
+     */
+    @Modifying
+    @Query("UPDATE item SET status = 'PROCESSED', processing_state = 1, updated_at = CURRENT_TIMESTAMP, " +
+            "version = version + 1 WHERE id IN (:ids) AND processing_state = 0")
+    Mono<Integer> markProcessed(Collection<Long> ids);
+
+    /**
+     * Deletes an item with a single statement; returns the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM item WHERE id = :id")
+    Mono<Integer> deleteItemById(Long id);
+}
@@ -0,0 +1,142 @@
+package com.siemens.internship.reactive.service;
+
+import com.siemens.internship.reactive.config.ProcessingProperties;
+import com.siemens.internship.reactive.dto.ItemCreateDTO;
+import com.siemens.internship.reactive.dto.ItemUpdateDTO;
+import com.siemens.internship.reactive.dto.ProcessingProgress;
+import com.siemens.internship.reactive.dto.ProcessingReport;
+import com.siemens.internship.reactive.exception.ItemNotFoundException;
+import com.siemens.internship.reactive.model.Item;
+import com.siemens.internship.reactive.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of the servlet ItemService: every method returns immediately with a
+ * Mono/Flux and no thread waits on the database while a query runs
+ */
+@Service
+public class ItemService {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProcessingProperties processingProperties;
+
+    public Flux<Item> findAll() {
+        return itemRepository.findAllOrderedById();
+    }
+
+    /**
+     * Returns at most limit items with an id greater than afterId, ordered by id
+     * A null afterId starts from the beginning of the table
+     */
+    public Flux<Item> findPage(Long afterId, int limit) {
+        return itemRepository.findPage(afterId == null ? Long.MIN_VALUE : afterId, limit);
+    }
+
+    public Mono<Item> findById(Long id) {
+        return itemRepository.findById(id);
+    }
+
+    public Mono<Item> save(ItemCreateDTO dto) {
+        Item item = new Item(null, dto.getName(), dto.getDescription(), dto.getStatus(), dto.getEmail());
+        item.setUpdatedAt(Instant.now());
+        return itemRepository.save(item);
+    }
+
+    /**
+     * Updates an existing item, skipping null or blank fields (only the description can be set to blank)
+     * Errors with ItemNotFoundException if the item does not exist
+     */
+    public Mono<Item> updateItem(Long id, ItemUpdateDTO dto) {
+        return itemRepository.findById(id)
+                .switchIfEmpty(Mono.error(ItemNotFoundException::new))
+                .flatMap(existingItem -> {
+                    if (dto.getName() != null && !dto.getName().isBlank()) {
+                        existingItem.setName(dto.getName());
+                    }
+                    if (dto.getDescription() != null) {
+                        existingItem.setDescription(dto.getDescription());
+                    }
+                    if (dto.getStatus() != null && !dto.getStatus().isBlank()) {
+                        existingItem.setStatus(dto.getStatus());
+                    }
+                    if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
+                        existingItem.setEmail(dto.getEmail());
+                    }
+                    existingItem.setUpdatedAt(Instant.now());
+                    return itemRepository.save(existingItem);
+                });
+    }
+
+    /**
+     * Emits true if the item existed and was deleted
+     */
+    public Mono<Boolean> deleteById(Long id) {
+        return itemRepository.deleteItemById(id).map(deleted -> deleted > 0);
+    }
+
+    /**
+     * Per-item processing, same contract as the servlet /process endpoint: every unprocessed item is
+     * marked PROCESSED and the processed items are emitted
+     * Pages are read one after another; the items of a page are written with at most
+     * "item.processing.concurrency" saves in flight
+     */
+    public Flux<Item> processItems() {
+        int chunkSize = processingProperties.getChunkSize();
+        return itemRepository.findUnprocessedAfter(Long.MIN_VALUE, chunkSize).collectList()
+                .expand(page -> page.size() < chunkSize
+                        ? Mono.empty()
+                        : itemRepository.findUnprocessedAfter(lastItemId(page), chunkSize).collectList())
+                .concatMap(page -> Flux.fromIterable(page)
+                        .flatMap(item -> {
+                            item.setStatus(Item.PROCESSED_STATUS);
+                            item.setUpdatedAt(Instant.now());
+                            return itemRepository.save(item);
+                        }, processingProperties.getConcurrency()), 1);
+    }
+
+    /**
+     * Chunked processing as a stream: one set-based UPDATE per chunk of "item.processing.chunk-size" ids,
+     * a ProcessingProgress record after every chunk and the ProcessingReport at the end
+     * Demand drives the run: the next chunk is only read once the client has taken the previous record,
+     * so a slow client slows the run down instead of buffering records
+     */
+    public Flux<Object> processItemsInChunks() {
+        return Flux.defer(() -> {
+            int chunkSize = processingProperties.getChunkSize();
+            long start = System.nanoTime();
+            AtomicReference<ProcessingProgress> last = new AtomicReference<>(new ProcessingProgress(0, 0, 0, 0, null));
+
+            Flux<ProcessingProgress> progress = itemRepository.findUnprocessedIdsAfter(Long.MIN_VALUE, chunkSize).collectList()
+                    .expand(ids -> ids.size() < chunkSize
+                            ? Mono.empty()
+                            : itemRepository.findUnprocessedIdsAfter(ids.get(ids.size() - 1), chunkSize).collectList())
+                    .filter(ids -> !ids.isEmpty())
+                    .concatMap(ids -> itemRepository.markProcessed(ids)
+                            .map(updated -> {
+                                ProcessingProgress previous = last.get();
+                                ProcessingProgress next = new ProcessingProgress(previous.getChunk() + 1, ids.size(),
+                                        previous.getProcessedCount() + updated, 0, ids.get(ids.size() - 1));
+                                last.set(next);
+                                return next;
+                            }), 1);
+
+            return progress.cast(Object.class)
+                    .concatWith(Mono.fromSupplier(() -> ProcessingReport.of(last.get().getProcessedCount(), 0,
+                            last.get().getChunk(), System.nanoTime() - start)));
+        });
+    }
+
+    private static Long lastItemId(List<Item> page) {
+        return page.get(page.size() - 1).getId();
+    }
+}
@@ -0,0 +1,14 @@
+-- Same item columns as the servlet app's schema (after its migrations); the id is an identity column here
+CREATE TABLE IF NOT EXISTS item (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name             VARCHAR(255),
+    description      VARCHAR(255),
+    status           VARCHAR(255),
+    email            VARCHAR(255),
+    processing_state TINYINT DEFAULT 0 NOT NULL,
+    version          BIGINT DEFAULT 0 NOT NULL,
+    updated_at       TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_processing_state ON item (processing_state, id);
@@ -0,0 +1,155 @@
+package com.siemens.internship.reactive;
+
+import com.siemens.internship.reactive.model.Item;
+import com.siemens.internship.reactive.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the reactive app keeps the /api/items contract of the servlet app
+ * It uses its own in-memory DB, created from schema.sql
+ */
+@SpringBootTest(properties = "item.processing.chunk-size=2")
+@AutoConfigureWebTestClient
+public class ReactiveInternshipApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        //reset DB before each test
+        itemRepository.deleteAll().block();
+    }
+
+
+    /*------------------------------------------------------------------------------------------------
+                                 TEST  Endpoint: GET /api/items
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testGET_KeysetPages() {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		)).collectList().block();
+		String cursor = String.valueOf(items.get(1).getId());
+
+		webTestClient.get().uri("/api/items?limit=2").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("X-Next-After", cursor)
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+
+		webTestClient.get().uri("/api/items?after={after}&limit=2", cursor).exchange()
+				.expectStatus().isOk()
+				.expectHeader().doesNotExist("X-Next-After")
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].name").isEqualTo("Item_3");
+	}
+
+	@Test
+	void testGET_InvalidPageLimit() {
+		webTestClient.get().uri("/api/items?limit=0").exchange()
+				.expectStatus().isBadRequest();
+	}
+
+
+    /*------------------------------------------------------------------------------------------------
+                                 TEST  Endpoint: POST, PUT, DELETE /api/items
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testCRUD_RoundTrip() {
+
+		Item created = webTestClient.post().uri("/api/items")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("name", "Item_1", "description", "Desc_1", "status", "NEW", "email", "a@b1.com"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(Item.class).returnResult().getResponseBody();
+
+		webTestClient.put().uri("/api/items/{id}", created.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("name", "Item_1b", "email", ""))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo("Item_1b")
+				.jsonPath("$.email").isEqualTo("a@b1.com");
+
+		webTestClient.delete().uri("/api/items/{id}", created.getId()).exchange()
+				.expectStatus().isNoContent();
+		webTestClient.get().uri("/api/items/{id}", created.getId()).exchange()
+				.expectStatus().isNotFound();
+		webTestClient.delete().uri("/api/items/{id}", created.getId()).exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void testPOST_InvalidEmail() {
+		webTestClient.post().uri("/api/items")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("name", "Item_1", "description", "Desc_1", "status", "NEW", "email", "not-an-email"))
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+
+    /*------------------------------------------------------------------------------------------------
+                                 TEST  Endpoint: GET /api/items/process
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testProcess_MarksEveryItemProcessed() {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", Item.PROCESSED_STATUS, "a@b3.com")
+		)).blockLast();
+
+		webTestClient.get().uri("/api/items/process").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(2)
+				.jsonPath("$[0].status").isEqualTo(Item.PROCESSED_STATUS);
+	}
+
+	@Test
+	void testProcessStream_ProgressThenReport() {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "NEW", "a@b3.com")
+		)).blockLast();
+
+		// chunk-size 2: two progress records, then the report
+		List<Map> records = webTestClient.get().uri("/api/items/process/stream")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(Map.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+
+		assertEquals(3, records.size());
+		assertEquals(3, ((Number) records.get(2).get("processedCount")).intValue());
+		assertEquals(2, ((Number) records.get(2).get("chunkCount")).intValue());
+		assertEquals(0L, itemRepository.findUnprocessedIdsAfter(Long.MIN_VALUE, 10).count().block());
+	}
+}
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Runs the same closed-loop load test (LoadTestClient) against the app once per setting and prints
+# throughput and latency per setting, e.g. the defaults against the perf profile:
+#   scripts/load-test.sh default perf
+# A setting is a comma-separated list of Spring profiles ("default" = no extra profile)
+# Every run starts from an empty database in target/load-test, so runs are comparable
+# Client options are passed through the environment: CONCURRENCY (64), DURATION (30), WARMUP (10),
+# SEED (1000), PAGE_EVERY (10), WRITE_EVERY (5), BATCH_EVERY (50), PORT (8080)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -gt 0 ]; then settings=("$@"); else settings=(default perf); fi
+port="${PORT:-8080}"
+
+./mvnw -q -DskipTests package
+./mvnw -q -Pbenchmark test-compile
+jar="$PWD/$(ls target/internship-*.jar | head -n 1)"
+results=target/load-test/results.txt
+mkdir -p target/load-test
+: > "$results"
+
+for setting in "${settings[@]}"; do
+  rm -rf target/load-test/data
+  profiles="$setting"
+  [ "$setting" = default ] && profiles=""
+  # started from target/load-test, so the ./data/itemsdb file database is created there
+  # the rate limits are off: the run measures the settings, not the limiter
+  (cd target/load-test && exec java -jar "$jar" --server.port="$port" --spring.profiles.active="$profiles" \
+    --item.rate-limit.enabled=false > "app-$setting.log" 2>&1) &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$port/actuator/health" > /dev/null; do
+    kill -0 "$app" 2>/dev/null || { echo "app with '$setting' did not start, see target/load-test/app-$setting.log"; exit 1; }
+    sleep 1
+  done
+
+  java -cp target/test-classes com.siemens.internship.benchmark.LoadTestClient \
+    url="http://localhost:$port" label="$setting" \
+    concurrency="${CONCURRENCY:-64}" duration="${DURATION:-30}" warmup="${WARMUP:-10}" seed="${SEED:-1000}" \
+    pageEvery="${PAGE_EVERY:-10}" writeEvery="${WRITE_EVERY:-5}" batchEvery="${BATCH_EVERY:-50}" | tee -a "$results"
+
+  kill "$app"
+  wait "$app" 2>/dev/null || true
+done
+
+echo
+echo "Summary (also in $results):"
+grep '^\[' "$results"
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request and resident memory of the app in the default mode and in the startup
+# mode (AOT + CDS archive + "startup" profile with lazy initialisation), e.g.:
+#   scripts/measure-startup.sh
+# The default mode runs the packaged jar as built before; the startup mode runs the extracted jar in target/cds
+# Time-to-first-request: from launching the JVM to the first 200 of GET /api/items (the request pays for
+# any bean that lazy initialisation deferred); RSS is read right after that request
+# Each mode is started RUNS (5) times after one discarded run that creates the database; the median is printed
+# PORT (8080) sets the port
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+runs="${RUNS:-5}"
+port="${PORT:-8080}"
+
+./mvnw -q -Pstartup -DskipTests package
+target_dir="$PWD/target"
+cds_dir="$target_dir/cds"
+jar_name=$(cd "$cds_dir" && ls internship-*.jar | head -n 1)
+
+# prints "<milliseconds to first request> <RSS in MB>" for one start of the given mode
+measure() {
+  local mode=$1 start pid elapsed rss
+  start=$(date +%s%N)
+  if [ "$mode" = startup ]; then
+    java -XX:SharedArchiveFile="$cds_dir/application.jsa" -Dspring.aot.enabled=true \
+      -jar "$cds_dir/$jar_name" --spring.profiles.active=startup --server.port="$port" > app.log 2>&1 &
+  else
+    java -jar "$target_dir/$jar_name" --server.port="$port" > app.log 2>&1 &
+  fi
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$port/api/items"; do
+    kill -0 "$pid" 2>/dev/null || { echo "app in $mode mode did not start, see $PWD/app.log" >&2; exit 1; }
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(( $(ps -o rss= -p "$pid") / 1024 ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss"
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+for mode in default startup; do
+  dir="target/startup-measure/$mode"
+  rm -rf "$dir" && mkdir -p "$dir"
+  (
+    # each mode has its own ./data/itemsdb; the discarded first run creates and migrates it
+    cd "$dir"
+    measure "$mode" > /dev/null
+    for _ in $(seq "$runs"); do
+      measure "$mode"
+    done > samples.txt
+    echo "$mode: time-to-first-request $(cut -d' ' -f1 samples.txt | median) ms," \
+      "RSS $(cut -d' ' -f2 samples.txt | median) MB (median of $runs runs)"
+  )
+done
@@ -0,0 +1,63 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.InternshipApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots the application (without the web layer) against a private in-memory H2 database
+ * and seeds it with a given number of items, for use from JMH @Setup methods
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application with the "test" profile; the given properties override it
+     */
+    static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("item.processing.chunk-size", "500");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Inserts items with ids 1..rows in a single set-based statement, all of them unprocessed
+     */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO item (id, name, description, status, email, processing_state, updated_at, version) " +
+                "SELECT X, CONCAT('Item_', X), 'Benchmark item', 'NEW', CONCAT('user', X, '@example.com'), 0, " +
+                "CURRENT_TIMESTAMP, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", rows);
+        // move the pooled sequence past the seeded ids, with room for one allocation block
+        jdbc.execute("ALTER SEQUENCE item_seq RESTART WITH " + (rows + 100));
+    }
+
+    /**
+     * Puts every item back into the unprocessed state and drops the processing checkpoint and change events
+     */
+    static void resetBacklog(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("UPDATE item SET status = 'NEW', processing_state = 0, updated_at = CURRENT_TIMESTAMP");
+        jdbc.update("DELETE FROM processing_checkpoint");
+        jdbc.update("DELETE FROM item_change_event");
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+}
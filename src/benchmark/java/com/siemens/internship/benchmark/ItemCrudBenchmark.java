@@ -0,0 +1,85 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.dto.ItemCreateDTO;
+import com.siemens.internship.dto.ItemUpdateDTO;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the single-item ItemService operations and of findAll, for growing table sizes
+ * findById is measured with the item cache enabled ("caffeine") and disabled ("none")
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ItemCrudBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tableSize;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("spring.cache.type", cacheType));
+        BenchmarkContext.seed(context, tableSize);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemService.save(new ItemCreateDTO("Item_new", "Benchmark item", "NEW", "new@example.com"));
+    }
+
+    @Benchmark
+    public Item updateItem() {
+        return itemService.updateItem(randomId(), new ItemUpdateDTO("Item_upd", null, null, null), null);
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemService.findById(randomId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> findAll() {
+        return itemService.findAll();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
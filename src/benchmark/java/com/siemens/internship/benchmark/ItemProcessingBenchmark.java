@@ -0,0 +1,87 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of one full processing run over a backlog of tableSize unprocessed items
+ * Every iteration starts from a fully unprocessed table
+ * The executor mode and size are parameters: "virtual" needs a Java 21 runtime, run it with
+ * -Djmh.args="-p executorMode=virtual -rf json -rff target/jmh-result.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class ItemProcessingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tableSize;
+
+    @Param({"platform"})
+    public String executorMode;
+
+    @Param({"4", "10", "32"})
+    public int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "item.processing.executor.mode", executorMode,
+                "item.processing.executor.pool-size", String.valueOf(poolSize),
+                "item.processing.executor.max-concurrency", String.valueOf(poolSize),
+                "spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize + 2)));
+        BenchmarkContext.seed(context, tableSize);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBacklog() {
+        BenchmarkContext.resetBacklog(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Original path: one task and one transaction per item on the processing executor
+     */
+    @Benchmark
+    public List<Item> processItemsAsync() {
+        return itemService.processItemsAsync().join();
+    }
+
+    /**
+     * Chunked path: keyset pages marked PROCESSED with one UPDATE per chunk
+     */
+    @Benchmark
+    public ProcessingReport processItemsInChunks() {
+        return itemService.processItemsInChunks();
+    }
+}
@@ -0,0 +1,210 @@
+package com.siemens.internship.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test of a running /api/items server, used to compare the servlet app (port 8080)
+ * with the reactive app in reactive/ (port 8081) under the same read-heavy traffic
+ * Every worker sends one request at a time for the whole duration: GET /api/items/{id} for a random
+ * seeded id, and every pageEvery-th request a GET /api/items?limit=100 page
+ * Optional writes: every writeEvery-th request a PUT /api/items/{id}, every batchEvery-th a POST
+ * /api/items/batch of 50 new items (0 = never); any other status than 200 counts as an error
+ * Prints throughput, error count and the p50 / p90 / p99 / max latency, prefixed with label, so runs
+ * of several settings (see scripts/load-test.sh) can be told apart
+ * Run: ./mvnw -Pbenchmark test-compile, then
+ * java -cp target/test-classes com.siemens.internship.benchmark.LoadTestClient url=http://localhost:8081 concurrency=512
+ * Options (key=value): url, concurrency (256), duration in seconds (30), warmup in seconds (5),
+ * seed = items created before the run (1000), pageEvery (10), writeEvery (0), batchEvery (0), label (url)
+ */
+public class LoadTestClient {
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "256"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "1000"));
+        int pageEvery = Integer.parseInt(options.getOrDefault("pageEvery", "10"));
+        Mix mix = new Mix(pageEvery,
+                Integer.parseInt(options.getOrDefault("writeEvery", "0")),
+                Integer.parseInt(options.getOrDefault("batchEvery", "0")));
+        String label = options.getOrDefault("label", url);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+
+        long[] ids = seed(client, url, seed);
+        System.out.printf("Seeded %d items, %d workers, %ds warmup, %ds measured against %s%n",
+                ids.length, concurrency, warmup, duration, url);
+
+        run(client, url, ids, concurrency, warmup, mix);
+        Result result = run(client, url, ids, concurrency, duration, mix);
+        result.print(label, duration);
+        System.exit(0);
+    }
+
+    private static long[] seed(HttpClient client, String url, int count) throws Exception {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            String body = "{\"name\":\"Load_" + i + "\",\"description\":\"Load test item\"," +
+                    "\"status\":\"NEW\",\"email\":\"load" + i + "@test.com\"}";
+            HttpResponse<String> response = client.send(post(url + "/api/items", body), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID_PATTERN.matcher(response.body());
+            if (response.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            ids[i] = Long.parseLong(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static Result run(HttpClient client, String url, long[] ids, int concurrency, int seconds, Mix mix)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> {
+                Result result = new Result();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int sent = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = mix.next(++sent, url, ids[random.nextInt(ids.length)]);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        result.record(System.nanoTime() - start, response.statusCode() != 200);
+                    } catch (Exception e) {
+                        result.record(System.nanoTime() - start, true);
+                    }
+                }
+                return result;
+            }));
+        }
+
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        workers.shutdown();
+        return total;
+    }
+
+    /**
+     * Which request the n-th request of a worker is; writes take precedence over pages
+     */
+    private static class Mix {
+
+        private final int pageEvery;
+        private final int writeEvery;
+        private final int batchEvery;
+
+        Mix(int pageEvery, int writeEvery, int batchEvery) {
+            this.pageEvery = pageEvery;
+            this.writeEvery = writeEvery;
+            this.batchEvery = batchEvery;
+        }
+
+        HttpRequest next(int n, String url, long id) {
+            if (batchEvery > 0 && n % batchEvery == 0) {
+                return post(url + "/api/items/batch", batchBody());
+            }
+            if (writeEvery > 0 && n % writeEvery == 0) {
+                return HttpRequest.newBuilder(URI.create(url + "/api/items/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Load_" + n + "\",\"status\":\"NEW\"}"))
+                        .build();
+            }
+            String path = n % pageEvery == 0 ? "/api/items?limit=100" : "/api/items/" + id;
+            return HttpRequest.newBuilder(URI.create(url + path)).GET().build();
+        }
+
+        private static String batchBody() {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                String key = Long.toHexString(ThreadLocalRandom.current().nextLong());
+                body.append(i == 0 ? "" : ",")
+                        .append("{\"name\":\"Batch_").append(i).append("\",\"description\":\"Load test item\",")
+                        .append("\"status\":\"NEW\",\"email\":\"").append(key).append("@test.com\"}");
+            }
+            return body.append("]").toString();
+        }
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Latencies (nanoseconds) and error count of one worker, or of all workers once merged
+     */
+    private static class Result {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        void print(String label, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("[%s] requests=%d errors=%d throughput=%.1f req/s%n",
+                    label, count, errors, count / (double) seconds);
+            System.out.printf("[%s] p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n", label,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction, backed by Caffeine
+ * Size and TTL eviction are configured with "spring.cache.caffeine.spec"; "recordStats" in the spec
+ * makes hit/miss/eviction counts available as cache.* metrics on /actuator/metrics
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Items by id, read through by ItemService.findById and kept in sync by every write path
+     * Writes of other instances sharing the database reach it through the change feed relay (ItemChangeFeed)
+     */
+    public static final String ITEMS_CACHE = "items";
+}
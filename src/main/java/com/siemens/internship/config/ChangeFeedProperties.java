@@ -0,0 +1,49 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the item change feed and its relay, bound from the "item.changes.*" properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * How often the relay reads new events from the outbox and pushes them to waiting clients
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Events read per outbox query, and the most events returned by one feed response
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the relay waits for a missing seq (a transaction that has not committed yet) before
+     * assuming it was rolled back and publishing the events after it
+     */
+    private Duration gapTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Events older than this are deleted; consumers that fall further behind have to reload the items
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Longest time a long-poll request may wait for new events
+     * Keep it below the async request timeout of the server (30s by default)
+     */
+    private Duration maxWait = Duration.ofSeconds(25);
+
+    /**
+     * Threads that write events to SSE clients, off the relay thread
+     * A client has at most one write in progress, so only this many slow clients at once can hold others back
+     */
+    private int sendThreads = 4;
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Managed executors used by item processing and the change feed
+ * All are Spring beans, so they are configurable through properties and are shut down gracefully
+ * (running processing tasks get up to "item.processing.executor.shutdown-timeout" to finish)
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Executes the per-item / per-chunk database work
+     */
+    public static final String ITEM_PROCESSING_EXECUTOR = "itemProcessingExecutor";
+
+    /**
+     * Executes whole processing runs (jobs and streams), which coordinate the work above
+     * Kept separate so a run never occupies a thread its own tasks are waiting for
+     */
+    public static final String PROCESSING_RUN_EXECUTOR = "processingRunExecutor";
+
+    /**
+     * Writes change feed events to SSE clients, so a slow client never holds up the relay
+     */
+    public static final String CHANGE_FEED_EXECUTOR = "changeFeedExecutor";
+
+    /**
+     * PLATFORM mode: fixed pool sized from properties, with a bounded queue; when the queue is full
+     * the submitting thread runs the task itself, which throttles the producer instead of failing
+     * VIRTUAL mode: a virtual thread per task, with a concurrency limit acting as a semaphore,
+     * so blocking JDBC calls are cheap but never exceed the connection pool
+     */
+    @Bean(name = ITEM_PROCESSING_EXECUTOR)
+    public AsyncTaskExecutor itemProcessingExecutor(ProcessingProperties properties) {
+        ProcessingProperties.Executor settings = properties.getExecutor();
+
+        if (settings.getMode() == ExecutorMode.VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("item-processing-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(settings.getMaxConcurrency());
+            executor.setTaskTerminationTimeout(settings.getShutdownTimeout().toMillis());
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("item-processing-");
+        executor.setCorePoolSize(settings.getPoolSize());
+        executor.setMaxPoolSize(settings.getPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(settings.getShutdownTimeout().toMillis());
+        return executor;
+    }
+
+    @Bean(name = PROCESSING_RUN_EXECUTOR)
+    public ThreadPoolTaskExecutor processingRunExecutor(ProcessingProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("processing-run-");
+        executor.setCorePoolSize(properties.getMaxConcurrentRuns());
+        executor.setMaxPoolSize(properties.getMaxConcurrentRuns());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(properties.getExecutor().getShutdownTimeout().toMillis());
+        return executor;
+    }
+
+    /**
+     * Fixed pool; the queue needs no bound, the relay hands over at most one write per client at a time
+     */
+    @Bean(name = CHANGE_FEED_EXECUTOR)
+    public ThreadPoolTaskExecutor changeFeedExecutor(ChangeFeedProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("change-feed-");
+        executor.setCorePoolSize(properties.getSendThreads());
+        executor.setMaxPoolSize(properties.getSendThreads());
+        return executor;
+    }
+}
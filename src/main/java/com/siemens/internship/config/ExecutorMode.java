@@ -0,0 +1,11 @@
+package com.siemens.internship.config;
+
+/**
+ * Threading strategy for item processing
+ * - PLATFORM: bounded pool of platform threads
+ * - VIRTUAL: one virtual thread per task, with a cap on concurrently running tasks (requires Java 21+)
+ */
+public enum ExecutorMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables @Timed on Spring beans (ItemService methods are timed as "item.service" with an "operation" tag;
+ * TimedAspect sets "class" and "method" to the Java method itself, so the logical name needs its own key)
+ * Executor, Hikari, cache and HTTP metrics are bound by Spring Boot's auto-configuration
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
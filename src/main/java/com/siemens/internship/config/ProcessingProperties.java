@@ -0,0 +1,125 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Tuning knobs for item processing, bound from the "item.processing.*" properties
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.processing")
+public class ProcessingProperties {
+
+    /**
+     * Number of items read and written together in the chunked processing mode
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Number of processing runs (jobs and streams) that execute at the same time; further triggers join a
+     * run of the same kind in progress or are refused (see ProcessingRunGuard)
+     */
+    private int maxConcurrentRuns = 2;
+
+    /**
+     * Retry-After of a processing trigger refused because maxConcurrentRuns runs are in progress
+     */
+    private Duration busyRetryAfter = Duration.ofSeconds(10);
+
+    /**
+     * Chunks that may be read but not yet written; when reached, reading waits for the writers
+     * Together with chunkSize this caps the memory a run needs, whatever the backlog size
+     */
+    private int maxInFlightChunks = 4;
+
+    /**
+     * Name of this application instance in processing claims and jobs; must differ between instances
+     * that share a database (random by default, i.e. new on every start)
+     * Jobs orphaned by a stopped instance are recognised by their heartbeat, so the id need not survive restarts
+     */
+    private String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * How often an instance refreshes the heartbeat of its QUEUED / RUNNING jobs, and looks for orphaned ones
+     */
+    private Duration jobHeartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * A QUEUED or RUNNING job whose heartbeat is older than this is failed as orphaned (its instance stopped);
+     * keep it a few heartbeat intervals long
+     */
+    private Duration jobHeartbeatTimeout = Duration.ofMinutes(2);
+
+    /**
+     * How long a claim on a chunk of items holds; items still unwritten after that can be claimed
+     * by another instance, so it has to be well above the time a chunk takes
+     */
+    private Duration leaseDuration = Duration.ofMinutes(5);
+
+    /**
+     * How far behind the current time the checkpoint is kept
+     * updatedAt is stamped when a change is flushed, before it commits, so a row can become visible with an
+     * updatedAt older than rows already processed; it has to be above the longest write transaction
+     */
+    private Duration checkpointLag = Duration.ofSeconds(30);
+
+    private final Executor executor = new Executor();
+
+    private final Retry retry = new Retry();
+
+    /**
+     * Settings of the executor that runs the per-item / per-chunk work ("item.processing.executor.*")
+     */
+    @Getter
+    @Setter
+    public static class Executor {
+
+        private ExecutorMode mode = ExecutorMode.PLATFORM;
+
+        /**
+         * PLATFORM mode: number of threads in the pool
+         */
+        private int poolSize = 10;
+
+        /**
+         * PLATFORM mode: tasks that may wait for a thread; beyond that the submitter runs the task itself
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * VIRTUAL mode: maximum number of tasks running at once
+         * Keep it at or below the Hikari pool size, every task holds a connection while it runs
+         */
+        private int maxConcurrency = 10;
+
+        /**
+         * How long shutdown waits for running tasks before giving up
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Retry of writes that failed with a transient database error ("item.processing.retry.*")
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Total attempts per write, including the first one
+         */
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        /**
+         * Factor applied to the backoff after every failed attempt
+         */
+        private double multiplier = 2.0;
+    }
+}
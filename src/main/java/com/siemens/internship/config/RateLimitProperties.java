@@ -0,0 +1,44 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Token-bucket rate limits of the endpoints that write or start processing, bound from "item.rate-limit.*"
+ * Reads are never limited; each bucket is shared by all clients of its endpoints
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * POST / PUT / PATCH / DELETE under /api/items, except the processing endpoints
+     */
+    private final Bucket writes = new Bucket(200, 100);
+
+    /**
+     * Processing triggers: GET /process, POST /process, GET /process/chunked and GET /process/stream
+     */
+    private final Bucket processing = new Bucket(5, 0.5);
+
+    /**
+     * A bucket holds up to capacity requests (the burst allowed) and refills at refillPerSecond
+     */
+    @Getter
+    @Setter
+    public static class Bucket {
+
+        private int capacity;
+
+        private double refillPerSecond;
+
+        Bucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
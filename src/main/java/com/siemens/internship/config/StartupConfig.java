@@ -0,0 +1,27 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.service.ItemChangeFeed;
+import com.siemens.internship.service.ProcessingJobMonitor;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager when "spring.main.lazy-initialization" is on (the "startup" profile)
+ * - the migrations and the EntityManagerFactory: every request needs them, and a broken schema or
+ *   database should fail the start, not the first request
+ * - the change feed and the job monitor: their scheduled work and startup checks are created by no request
+ * Everything else (controllers, services, executors, caches) is created by the first request using it
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                FlywayMigrationInitializer.class, EntityManagerFactory.class, ItemChangeFeed.class,
+                ProcessingJobMonitor.class);
+    }
+}
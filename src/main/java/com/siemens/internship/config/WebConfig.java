@@ -0,0 +1,41 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.controller.RateLimitInterceptor;
+import com.siemens.internship.controller.TokenBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/**
+ * Registers the rate limits of "item.rate-limit.*" on the item endpoints (see RateLimitProperties)
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String[] PROCESSING_TRIGGERS = {
+            "/api/items/process", "/api/items/process/chunked", "/api/items/process/stream"};
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+        registry.addInterceptor(new RateLimitInterceptor("write", bucket(rateLimitProperties.getWrites()),
+                        Set.of("POST", "PUT", "PATCH", "DELETE")))
+                .addPathPatterns("/api/items", "/api/items/**")
+                .excludePathPatterns("/api/items/process", "/api/items/process/**");
+        registry.addInterceptor(new RateLimitInterceptor("processing", bucket(rateLimitProperties.getProcessing()),
+                        Set.of("GET", "POST")))
+                .addPathPatterns(PROCESSING_TRIGGERS);
+    }
+
+    private static TokenBucket bucket(RateLimitProperties.Bucket settings) {
+        return new TokenBucket(settings.getCapacity(), settings.getRefillPerSecond());
+    }
+}
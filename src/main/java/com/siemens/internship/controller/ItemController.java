@@ -1,54 +1,441 @@
 package com.siemens.internship.controller;
 
+import com.siemens.internship.config.ChangeFeedProperties;
+import com.siemens.internship.dto.BatchCreateResult;
+import com.siemens.internship.dto.BulkUpdateResult;
 import com.siemens.internship.dto.ItemCreateDTO;
+import com.siemens.internship.dto.ItemFilter;
+import com.siemens.internship.dto.ItemStatusBulkUpdateDTO;
+import com.siemens.internship.dto.ItemTableState;
 import com.siemens.internship.dto.ItemUpdateDTO;
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.dto.StatusCount;
+import com.siemens.internship.exception.BatchAbortedException;
+import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemVersionMismatchException;
+import com.siemens.internship.exception.ProcessingBusyException;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.service.ItemChangeFeed;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingJobService;
+import com.siemens.internship.service.ProcessingRunGuard;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    static final String NEXT_SINCE_HEADER = "X-Next-Since";
+    // one entity-tag of an If-Match list, optionally weak
+    private static final Pattern ENTITY_TAG = Pattern.compile("(W/)?\"([^\"]*)\"");
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    @Autowired
+    private ProcessingRunGuard processingRunGuard;
+
+    @Autowired
+    private ItemChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeFeedProperties changeFeedProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
+    /**
+     * Without parameters returns the whole list (kept for backwards compatibility)
+     * With "after" and/or "limit" returns one keyset page ordered by id:
+     * - after: only items with a greater id are returned (exclusive cursor)
+     * - limit: page size, 1..1000, defaults to 100
+     * When the page is full, the X-Next-After header carries the cursor for the next page
+     * With "fields" (e.g. fields=name,status) only those attributes, plus id, are selected and returned
+     * Filters (see ItemFilter: status, email, emailDomain, namePrefix, fromId, toId) restrict the result;
+     * "sort" (e.g. sort=name,desc) orders it, but cannot be combined with "after" (the cursor is an id)
+     * The ETag and Last-Modified are derived from the item count and the latest change; a client sending
+     * them back (If-None-Match / If-Modified-Since) gets 304 NOT_MODIFIED without the list being read
+     */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+    public ResponseEntity<?> getAllItems(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) List<String> fields,
+                                         @ModelAttribute ItemFilter filter,
+                                         Sort sort,
+                                         ServletWebRequest request) {
+        List<String> selected;
+        try {
+            selected = fields == null ? null : itemService.resolveFields(fields);
+            itemService.resolveSort(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of(e.getMessage()));
+        }
+
+        boolean idOrder = sort.isUnsorted() || sort.equals(Sort.by("id"));
+        if (after != null && !idOrder) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(List.of("Parameter after can only be used with id order"));
+        }
+
+        Integer pageSize = null;
+        if (after != null || limit != null) {
+            pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(List.of("Limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+        }
+
+        ItemTableState state = itemService.findTableState();
+        if (isNotModified(request, "\"" + state.getCount() + "-" + toEpochMicros(state.getLastUpdatedAt()) + "\"",
+                state.getLastUpdatedAt())) {
+            return null;
+        }
+
+        if (after == null && limit == null && filter.isEmpty() && sort.isUnsorted() && selected == null) {
+            return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (selected != null) {
+            List<Map<String, Object>> page = itemService.searchFields(selected, filter, after, sort, pageSize);
+            if (idOrder && pageSize != null && page.size() == pageSize) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).get("id")));
+            }
+            return response.body(page);
+        }
+
+        List<Item> page = itemService.search(filter, after, sort, pageSize);
+        if (idOrder && pageSize != null && page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Number of items matching the filter (same parameters as GET /api/items), as {"count": n}
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Long>> countItems(@ModelAttribute ItemFilter filter) {
+        return new ResponseEntity<>(Map.of("count", itemService.count(filter)), HttpStatus.OK);
     }
 
+    /**
+     * Number of items per status, as a list of {"status": ..., "count": n} ordered by status
+     */
+    @GetMapping("/count/by-status")
+    public ResponseEntity<List<StatusCount>> countItemsByStatus() {
+        return new ResponseEntity<>(itemService.countByStatus(), HttpStatus.OK);
+    }
+
+    /**
+     * Change feed (long poll): the change events after "since", oldest first, at most "limit" (1..1000, default 100)
+     * When there are none yet, waits up to "wait" seconds (default and maximum "item.changes.max-wait") for new ones
+     * The X-Next-Since header is the "since" of the next request; without "since" the response is empty and
+     * X-Next-Since is the current head, so a consumer reads it first, loads the items, then polls from there
+     * 410 GONE if events after "since" were already deleted: the consumer has to reload the items
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<?>> getChanges(@RequestParam(required = false) Long since,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) Integer wait) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        long maxWait = changeFeedProperties.getMaxWait().toSeconds();
+        long waitSeconds = wait == null ? maxWait : wait;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(List.of("Limit must be between 1 and " + MAX_PAGE_SIZE)));
+        }
+        if (waitSeconds < 0 || waitSeconds > maxWait) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(List.of("Wait must be between 0 and " + maxWait + " seconds")));
+        }
+        if (since == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.OK)
+                    .header(NEXT_SINCE_HEADER, String.valueOf(changeFeed.head()))
+                    .body(List.of()));
+        }
+        if (changeFeed.isExpired(since)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.GONE)
+                    .body(List.of("Changes after " + since + " are no longer available, reload the items")));
+        }
+
+        return changeFeed.poll(since, pageSize, Duration.ofSeconds(waitSeconds))
+                .<ResponseEntity<?>>thenApply(events -> ResponseEntity.status(HttpStatus.OK)
+                        .header(NEXT_SINCE_HEADER, String.valueOf(events.isEmpty()
+                                ? since
+                                : events.get(events.size() - 1).getSeq()))
+                        .body(events));
+    }
+
+    /**
+     * Change feed as server-sent events: the events after "since" (or the Last-Event-ID header sent by a
+     * reconnecting EventSource), then every new one as it is published; without either, starts at the head
+     * Events are named "item-change", carry the seq as id and an ItemChangeEvent as JSON data
+     * 410 GONE (without a stream) if events after "since" were already deleted
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long since,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = since != null ? since : lastEventId != null ? lastEventId : changeFeed.head();
+        if (changeFeed.isExpired(from)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.ok(changeFeed.subscribe(from));
+    }
+
+    /**
+     * Streams every item as NDJSON (one JSON object per line) straight from a database cursor
+     * Memory use stays constant regardless of the table size
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllItems() {
+        StreamingResponseBody body = out -> itemService.streamAll(item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Returns the item with its version as ETag, to be sent back in If-Match when updating it
+     * and its updatedAt as Last-Modified; If-None-Match / If-Modified-Since get 304 NOT_MODIFIED
+     * without a body when the item has not changed (the lookup is usually served from the cache)
+     * With "fields" only those attributes, plus id, are returned (without ETag, the version is not selected)
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<?> getItemById(@PathVariable Long id, @RequestParam(required = false) List<String> fields,
+                                         ServletWebRequest request) {
+        if (fields != null) {
+            List<String> selected;
+            try {
+                selected = itemService.resolveFields(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of(e.getMessage()));
+            }
+            return itemService.findFieldsById(id, selected)
+                    .<ResponseEntity<?>>map(row -> new ResponseEntity<>(row, HttpStatus.OK))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        }
+
+        Optional<Item> item = itemService.findById(id);
+        if (item.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (isNotModified(request, eTag(item.get()), item.get().getUpdatedAt())) {
+            return null;
+        }
+        return new ResponseEntity<>(item.get(), HttpStatus.OK);
+    }
+
+    /**
+     * Conditional GET: sets the ETag, Last-Modified and "Cache-Control: no-cache" headers and returns true
+     * when the client's copy is still current; the response is then a 304 and no body must be written
+     * no-cache makes clients revalidate every time, Last-Modified alone would let them guess a freshness period
+     */
+    private static boolean isNotModified(ServletWebRequest request, String eTag, Instant lastModified) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(eTag, lastModified == null ? -1 : lastModified.toEpochMilli());
+    }
+
+    private static long toEpochMicros(Instant instant) {
+        return instant == null ? 0 : instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
     }
 
+    /**
+     * Processes the backlog item by item and returns the processed items
+     * A call while such a run is in progress waits for that run and gets its result; 503 SERVICE_UNAVAILABLE
+     * with Retry-After if the maximum number of runs is in progress (see ProcessingRunGuard)
+     */
     @GetMapping("/process")
     public ResponseEntity<?> processItems() {
         try {
-            List<Item> processed = itemService.processItemsAsync().join();
+            List<Item> processed = processingRunGuard.<List<Item>>runOrJoin(ProcessingRunGuard.PER_ITEM, progress -> { },
+                    listener -> itemService.processItemsAsync()).join();
             return new ResponseEntity<>(processed, HttpStatus.OK);
-        }catch (CompletionException e) {
+        } catch (ProcessingBusyException e) {
+            return busy(e);
+        } catch (CompletionException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Processing failed: " + e.getCause().getMessage());
+        }
+    }
+
+
+    /**
+     * Submits a processing job and returns it right away with 202 ACCEPTED
+     * The Location header points at the job resource to poll for state, counts and timing
+     * With full=true the processing checkpoint is reset first, so the job rescans the whole table
+     * While a job is in progress the same job is returned; 503 SERVICE_UNAVAILABLE with Retry-After
+     * if no run can be started
+     */
+    @PostMapping("/process")
+    public ResponseEntity<?> submitProcessingJob(@RequestParam(defaultValue = "false") boolean full) {
+        if (full) {
+            itemService.resetProcessingCheckpoint();
+        }
+        ProcessingJob job;
+        try {
+            job = processingJobService.submit();
+        } catch (ProcessingBusyException e) {
+            return busy(e);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/items/process/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/process/{jobId}")
+    public ResponseEntity<ProcessingJob> getProcessingJob(@PathVariable Long jobId) {
+        return processingJobService.findById(jobId)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Chunked processing mode: marks the backlog changed since the last run as PROCESSED chunk by chunk
+     * Returns a throughput report instead of the processed items, so the response stays small
+     * With full=true the processing checkpoint is reset first, so the whole table is rescanned
+     * A call while a chunked run (also a stream or a job) is in progress gets the report of that run;
+     * a reset checkpoint then applies to the next run
+     * 503 SERVICE_UNAVAILABLE with Retry-After if the maximum number of runs is in progress
+     */
+    @GetMapping("/process/chunked")
+    public ResponseEntity<?> processItemsInChunks(@RequestParam(defaultValue = "false") boolean full) {
+        if (full) {
+            itemService.resetProcessingCheckpoint();
+        }
+        try {
+            ProcessingReport report = processingRunGuard.runOrJoin(ProcessingRunGuard.CHUNKED, progress -> { },
+                    itemService::processItemsInChunksAsync).join();
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (ProcessingBusyException e) {
+            return busy(e);
+        } catch (CompletionException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Processing failed: " + e.getCause().getMessage());
         }
     }
 
+    /**
+     * 503 SERVICE_UNAVAILABLE for a refused processing trigger, with the Retry-After (in seconds) to wait
+     */
+    private static ResponseEntity<List<String>> busy(ProcessingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(e))
+                .body(List.of(e.getMessage()));
+    }
+
+    private static String retryAfterSeconds(ProcessingBusyException e) {
+        return String.valueOf(Math.max(1, e.getRetryAfter().toSeconds()));
+    }
+
+
+    /**
+     * Streaming variant of the chunked processing (NDJSON, one JSON record per line)
+     * Emits a ProcessingProgress record after every chunk and the final ProcessingReport at the end
+     * The run happens on the processing run executor, so the request thread is released immediately
+     * On failure an {"error": "Processing failed: ..."} record is emitted instead of the report,
+     * mirroring the message of the blocking /process endpoint (the 200 status is already committed)
+     * full=true resets the processing checkpoint first, as for /process/chunked
+     * A call while a chunked run is in progress follows that run (progress from then on, then its report);
+     * a client that goes away stops receiving records, the run goes on
+     * 503 SERVICE_UNAVAILABLE with Retry-After if the maximum number of runs is in progress
+     */
+    @GetMapping("/process/stream")
+    public ResponseEntity<ResponseBodyEmitter> processItemsStream(@RequestParam(defaultValue = "false") boolean full) {
+        if (full) {
+            itemService.resetProcessingCheckpoint();
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+
+        CompletableFuture<ProcessingReport> run;
+        try {
+            run = processingRunGuard.runOrJoin(ProcessingRunGuard.CHUNKED, progress -> sendRecord(emitter, progress),
+                    itemService::processItemsInChunksAsync);
+        } catch (ProcessingBusyException e) {
+            // the return type has to stay ResponseEntity<ResponseBodyEmitter> for the emitter to be handled,
+            // so the refusal has no body
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(e))
+                    .build();
+        }
+        run.whenComplete((report, ex) -> {
+            try {
+                if (ex == null) {
+                    sendRecord(emitter, report);
+                } else {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    sendRecord(emitter, Map.of("error", "Processing failed: " + cause.getMessage()));
+                }
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // the client went away, nothing left to write to
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * Writes one NDJSON record (the JSON object followed by a line break)
+     */
+    private static void sendRecord(ResponseBodyEmitter emitter, Object record) {
+        try {
+            emitter.send(record, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 
     @PostMapping
     public ResponseEntity<?> createItem(@Valid @RequestBody ItemCreateDTO dto, BindingResult result) {
@@ -63,8 +450,59 @@ public class ItemController {
     }
 
 
+    /**
+     * Creates many items in one request
+     * The body is either a JSON array or NDJSON (one ItemCreateDTO per line) and is parsed incrementally
+     * with the streaming parser (see ItemCreateDTOReader), one chunk of elements at a time
+     * Every element is validated on its own: invalid elements are reported as REJECTED with their
+     * messages and do not prevent the valid ones from being saved
+     * With upsert=true, an element whose email already exists updates that item instead
+     * The batch is not atomic: chunks are saved while the body is still being read, so a body that turns
+     * out not to be well-formed JSON gives 400 BAD_REQUEST with
+     * - the error messages only, if the body was malformed before its first element (nothing saved)
+     * - otherwise the results of the elements before the malformed one (saved) plus the error
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createItemsInBatch(InputStream body,
+                                                @RequestParam(defaultValue = "false") boolean upsert) throws IOException {
+        try (ItemCreateDTOReader items = new ItemCreateDTOReader(objectMapper.createParser(body))) {
+            BatchCreateResult result = itemService.saveBatch(items, upsert);
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (JsonProcessingException e) {
+            return malformedBody(e);
+        } catch (BatchAbortedException e) {
+            // the reader reports parse errors met while iterating as unchecked exceptions
+            if (!(e.getCause().getCause() instanceof JsonProcessingException cause)) {
+                throw e;
+            }
+            BatchCreateResult partialResult = e.getPartialResult();
+            if (partialResult.getResults().isEmpty()) {
+                return malformedBody(cause);
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(partialResult.withError(malformedBodyMessage(cause)));
+        }
+    }
+
+    private static ResponseEntity<List<String>> malformedBody(JsonProcessingException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of(malformedBodyMessage(e)));
+    }
+
+    private static String malformedBodyMessage(JsonProcessingException e) {
+        return "Malformed request body: " + e.getOriginalMessage();
+    }
+
+
+    /**
+     * Updates an item; with an If-Match header the update only happens if the item is still at one of the
+     * listed versions (strong ETags only)
+     * - 412 PRECONDITION_FAILED if If-Match does not match the current version (the current ETag is returned)
+     * - 409 CONFLICT if the item was changed by someone else while this update was being applied
+     * The response carries the new ETag
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody ItemUpdateDTO dto, BindingResult result) {
+    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody ItemUpdateDTO dto, BindingResult result,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (result.hasErrors()) {
             List<String> errors = result.getAllErrors().stream()
                     .map(DefaultMessageSourceResolvable::getDefaultMessage)
@@ -73,19 +511,98 @@ public class ItemController {
         }
 
         try {
-            Item updatedItem = itemService.updateItem(id, dto);
-            return ResponseEntity.status(HttpStatus.OK).body(updatedItem);
-        } catch (RuntimeException e) {
+            Item updatedItem = itemService.updateItem(id, dto, parseIfMatch(ifMatch));
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updatedItem)).body(updatedItem);
+        } catch (ItemNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ItemVersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(eTag(e.getCurrentVersion()))
+                    .body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Item was modified concurrently, reload and retry");
         }
     }
 
+    /**
+     * Partial update: only the fields present (and not blank) in the body are written, in a single UPDATE
+     * Same validation, If-Match handling and status codes as PUT
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchItem(@PathVariable Long id, @Valid @RequestBody ItemUpdateDTO dto, BindingResult result,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (result.hasErrors()) {
+            List<String> errors = result.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .toList();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+        }
+
+        try {
+            Item patchedItem = itemService.patchItem(id, dto, parseIfMatch(ifMatch));
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(patchedItem)).body(patchedItem);
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ItemVersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(eTag(e.getCurrentVersion()))
+                    .body(e.getMessage());
+        }
+    }
+
+    private static String eTag(Item item) {
+        return eTag(item.getVersion());
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the versions named by an If-Match header (a list of ETags), or null when there is none (or it is "*")
+     * If-Match uses the strong comparison (RFC 9110), so weak ETags (W/"1") never match and are left out
+     * The result is never empty: when no listed ETag can match, it holds an impossible version instead
+     */
+    private static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        Matcher tag = ENTITY_TAG.matcher(ifMatch);
+        while (tag.find()) {
+            if (tag.group(1) == null) {
+                try {
+                    versions.add(Long.parseLong(tag.group(2)));
+                } catch (NumberFormatException e) {
+                    // not one of our ETags
+                }
+            }
+        }
+        return versions.isEmpty() ? List.of(-1L) : versions;
+    }
+
+
+    /**
+     * Moves all items matching the filter (ids, id range and/or current status) to the target status
+     * Runs set-based UPDATEs without loading the items and returns the number of affected rows
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<?> updateStatusInBulk(@Valid @RequestBody ItemStatusBulkUpdateDTO dto, BindingResult result) {
+        if (result.hasErrors()) {
+            List<String> errors = result.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .toList();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+        }
+
+        BulkUpdateResult updateResult = itemService.updateStatusInBulk(dto);
+        return ResponseEntity.status(HttpStatus.OK).body(updateResult);
+    }
+
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        Optional<Item> item = itemService.findById(id);
-        if (item.isPresent()) {
-            itemService.deleteById(id);
+        if (itemService.deleteById(id)) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND); // 404
@@ -0,0 +1,102 @@
+package com.siemens.internship.controller;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.siemens.internship.dto.ItemCreateDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads ItemCreateDTOs one by one from a JSON array or NDJSON body, straight from the parser tokens
+ * Nothing but the current element is in memory: no copy of the body, no JSON tree, no data-binding
+ * lookups; unknown fields are skipped, like the ObjectMapper does
+ * A scalar field value is taken as text (as the ObjectMapper coerces it), an object or array value
+ * is malformed
+ * Malformed input met while iterating is thrown as an UncheckedIOException around a JsonProcessingException
+ */
+public class ItemCreateDTOReader implements Iterator<ItemCreateDTO>, Closeable {
+
+    private final JsonParser parser;
+    private boolean started;
+    private boolean inArray;
+    private boolean finished;
+    private ItemCreateDTO next;
+
+    public ItemCreateDTOReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = read();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ItemCreateDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ItemCreateDTO dto = next;
+        next = null;
+        return dto;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private ItemCreateDTO read() {
+        try {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_ARRAY) {
+                    inArray = true;
+                    token = parser.nextToken();
+                }
+            }
+            if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                finished = true;
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an item object but found " + token);
+            }
+
+            ItemCreateDTO dto = new ItemCreateDTO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "name" -> dto.setName(text(value));
+                    case "description" -> dto.setDescription(text(value));
+                    case "status" -> dto.setStatus(text(value));
+                    case "email" -> dto.setEmail(text(value));
+                    default -> parser.skipChildren();
+                }
+            }
+            return dto;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String text(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a text value for field '" + parser.currentName() + "'");
+        }
+        return parser.getText();
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemens.internship.controller;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Admits the requests of the given HTTP methods only while the token bucket has tokens
+ * A refused request is answered right away with 429 TOO_MANY_REQUESTS and a Retry-After (seconds) of when
+ * the next token is due, so overload costs the client a short wait instead of slowing down every request
+ * Async re-dispatches (streams, long polls) belong to a request that was already admitted
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final String name;
+    private final TokenBucket bucket;
+    private final Set<String> methods;
+
+    public RateLimitInterceptor(String name, TokenBucket bucket, Set<String> methods) {
+        this.name = name;
+        this.bucket = bucket;
+        this.methods = methods;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !methods.contains(request.getMethod())) {
+            return true;
+        }
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        long retryAfter = Math.max(1, (long) Math.ceil(waitNanos / 1e9));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("[\"Too many " + name + " requests, retry in " + retryAfter + "s\"]");
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.siemens.internship.controller;
+
+/**
+ * Token bucket: holds up to capacity tokens and gains refillPerSecond tokens per second
+ * Each admitted request takes one token, so bursts of up to capacity requests pass and the long-run rate
+ * is refillPerSecond; the refill is computed when a token is asked for, no timer is involved
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs a capacity of at least 1 and a positive refill rate");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if there is one and returns 0, otherwise returns the nanoseconds until there will be one
+     */
+    public synchronized long tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+}
@@ -0,0 +1,35 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response of a batch create/upsert: totals per outcome plus one result per element, in request order
+ * error is null unless reading the request stopped early; results then cover the elements before that point
+ */
+@Getter
+@AllArgsConstructor
+public class BatchCreateResult {
+
+    private long created;
+
+    private long updated;
+
+    private long rejected;
+
+    private List<BatchItemResult> results;
+
+    private String error;
+
+    public static BatchCreateResult of(List<BatchItemResult> results) {
+        long created = results.stream().filter(r -> r.getOutcome() == BatchItemOutcome.CREATED).count();
+        long updated = results.stream().filter(r -> r.getOutcome() == BatchItemOutcome.UPDATED).count();
+        return new BatchCreateResult(created, updated, results.size() - created - updated, results, null);
+    }
+
+    public BatchCreateResult withError(String error) {
+        return new BatchCreateResult(created, updated, rejected, results, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship.dto;
+
+/**
+ * What happened to one element of a batch request
+ */
+public enum BatchItemOutcome {
+    CREATED,
+    UPDATED,
+    REJECTED
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Result for one element of a batch request
+ * - index: 0-based position of the element in the request body
+ * - id: id of the created/updated item (null when rejected)
+ * - errors: validation messages (empty unless rejected)
+ */
+@Getter
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private int index;
+
+    private BatchItemOutcome outcome;
+
+    private Long id;
+
+    private List<String> errors;
+
+    public static BatchItemResult rejected(int index, List<String> errors) {
+        return new BatchItemResult(index, BatchItemOutcome.REJECTED, null, errors);
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a set-based bulk update: rows changed and number of UPDATE statements issued
+ */
+@Getter
+@AllArgsConstructor
+public class BulkUpdateResult {
+
+    private long affectedCount;
+
+    private int chunkCount;
+}
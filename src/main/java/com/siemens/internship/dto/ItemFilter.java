@@ -0,0 +1,37 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Query parameters for filtering items, all optional and combined with AND
+ * - status / email: exact match (indexed)
+ * - emailDomain: email ends with "@" + emailDomain, case-insensitive (not indexable, combine with another filter)
+ * - namePrefix: name starts with the given text (indexed range scan)
+ * - fromId / toId: inclusive id range (either bound may be left open)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemFilter {
+
+    private String status;
+
+    private String email;
+
+    private String emailDomain;
+
+    private String namePrefix;
+
+    private Long fromId;
+
+    private Long toId;
+
+    public boolean isEmpty() {
+        return status == null && email == null && emailDomain == null && namePrefix == null
+                && fromId == null && toId == null;
+    }
+}
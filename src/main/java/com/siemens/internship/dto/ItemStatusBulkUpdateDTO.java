@@ -0,0 +1,47 @@
+package com.siemens.internship.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO used for moving many items to a new status at once
+ * The filters are combined with AND, and at least one of them is required:
+ * - ids: explicit item ids
+ * - fromId / toId: inclusive id range (either bound may be left open)
+ * - currentStatus: only items currently in this status
+ * TargetStatus is required, max 20 characters like the status of a single item
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemStatusBulkUpdateDTO {
+
+    private List<Long> ids;
+
+    private Long fromId;
+
+    private Long toId;
+
+    @Size(max = 20, message = "Current status cannot exceed 20 characters")
+    private String currentStatus;
+
+    @NotBlank(message = "Target status must not be blank")
+    @Size(max = 20, message = "Target status cannot exceed 20 characters")
+    private String targetStatus;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one filter (ids, id range or current status) is required")
+    public boolean isFilterPresent() {
+        return (ids != null && !ids.isEmpty()) || fromId != null || toId != null
+                || (currentStatus != null && !currentStatus.isBlank());
+    }
+}
@@ -0,0 +1,19 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Number of items and the latest updatedAt among them (null when the table is empty)
+ * Used as the validator of item list responses
+ */
+@Getter
+@AllArgsConstructor
+public class ItemTableState {
+
+    private Long count;
+
+    private Instant lastUpdatedAt;
+}
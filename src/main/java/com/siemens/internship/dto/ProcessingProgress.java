@@ -0,0 +1,27 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress record emitted after each chunk of a chunked processing run
+ * - chunk: 1-based index of the chunk that just completed
+ * - chunkSize: number of items written by that chunk
+ * - processedCount: total number of items processed so far
+ * - failedCount: total number of items dead-lettered so far
+ * - lastId: highest item id covered so far
+ */
+@Getter
+@AllArgsConstructor
+public class ProcessingProgress {
+
+    private int chunk;
+
+    private int chunkSize;
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private Long lastId;
+}
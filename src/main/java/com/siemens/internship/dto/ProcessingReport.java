@@ -0,0 +1,33 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Summary of a chunked processing run
+ * Reports how many items were processed or failed (dead-lettered), in how many chunks,
+ * and the achieved throughput
+ */
+@Getter
+@AllArgsConstructor
+public class ProcessingReport {
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private int chunkCount;
+
+    private long elapsedMillis;
+
+    private double rowsPerSecond;
+
+    /**
+     * Builds a report from raw counters, computing the throughput from the elapsed nanoseconds
+     */
+    public static ProcessingReport of(long processedCount, long failedCount, int chunkCount, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? processedCount / seconds : 0;
+        return new ProcessingReport(processedCount, failedCount, chunkCount, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Number of items in one status, as returned by GET /api/items/count/by-status
+ */
+@Getter
+@AllArgsConstructor
+public class StatusCount {
+
+    private String status;
+
+    private Long count;
+}
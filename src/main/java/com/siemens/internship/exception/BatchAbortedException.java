@@ -0,0 +1,19 @@
+package com.siemens.internship.exception;
+
+import com.siemens.internship.dto.BatchCreateResult;
+import lombok.Getter;
+
+/**
+ * Thrown when the elements of a batch can no longer be read (e.g. the body turns out to be malformed)
+ * Carries the results of the elements read before that, which are already saved
+ */
+@Getter
+public class BatchAbortedException extends RuntimeException {
+
+    private final BatchCreateResult partialResult;
+
+    public BatchAbortedException(BatchCreateResult partialResult, RuntimeException cause) {
+        super("Batch aborted after " + partialResult.getResults().size() + " elements", cause);
+        this.partialResult = partialResult;
+    }
+}
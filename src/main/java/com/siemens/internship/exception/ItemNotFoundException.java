@@ -0,0 +1,11 @@
+package com.siemens.internship.exception;
+
+/**
+ * Thrown when an operation targets an item id that does not exist
+ */
+public class ItemNotFoundException extends RuntimeException {
+
+    public ItemNotFoundException() {
+        super("Item not found");
+    }
+}
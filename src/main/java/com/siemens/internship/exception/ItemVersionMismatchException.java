@@ -0,0 +1,18 @@
+package com.siemens.internship.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the version sent by the client (If-Match) is not the current version of the item
+ * Carries the current version, so the client can be told what to re-read
+ */
+@Getter
+public class ItemVersionMismatchException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public ItemVersionMismatchException(Long currentVersion) {
+        super("Item was modified, current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a processing run is triggered while the maximum number of runs is already in progress
+ * Carries how long the client should wait before trying again (Retry-After)
+ */
+@Getter
+public class ProcessingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ProcessingBusyException(Duration retryAfter) {
+        super("Too many processing runs in progress, retry in " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+}
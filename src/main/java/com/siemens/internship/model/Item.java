@@ -1,23 +1,57 @@
 package com.siemens.internship.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
+/**
+ * Indexes:
+ * - (processing_state, id): finding unprocessed items is an index range scan in id order
+ * - (processing_state, updated_at, id): same for incremental processing, in change order
+ * - lease_until: finding claims abandoned by an instance that stopped mid-run
+ * - status and email: equality lookups used by bulk status updates, upsert-by-email and list filters
+ * - name: prefix filters on the list endpoint
+ * - updated_at: MAX(updated_at) for the list ETag / Last-Modified is read from the end of the index
+ */
 @Entity
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_processing_state", columnList = "processing_state, id"),
+        @Index(name = "idx_item_pending_changes", columnList = "processing_state, updated_at, id"),
+        @Index(name = "idx_item_lease_until", columnList = "lease_until"),
+        @Index(name = "idx_item_status", columnList = "status"),
+        @Index(name = "idx_item_email", columnList = "email"),
+        @Index(name = "idx_item_name", columnList = "name"),
+        @Index(name = "idx_item_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    /**
+     * Pooled sequence: one sequence call hands out 50 ids, so batch inserts do not pay a round trip per row
+     * (item_seq already increments by 50, which is what AUTO generated for this table)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -27,4 +61,75 @@ public class Item {
     private String status;
 
     private String email;
-}
\ No newline at end of file
+
+    /**
+     * Derived from status by setStatus; internal, so it is not part of the JSON representation
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "processing_state", nullable = false)
+    private ProcessingState processingState = ProcessingState.PENDING;
+
+    /**
+     * Optimistic lock: every update checks and increments it, so concurrent writes cannot silently
+     * overwrite each other; exposed to clients as the ETag, not in the JSON body
+     */
+    @JsonIgnore
+    @Version
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Time of the last change, maintained on every insert/update (bulk updates set it explicitly)
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Processing claim: the instance that is processing the item and until when its claim holds
+     * Set by a conditional bulk UPDATE, cleared when the item is written; internal like processingState
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.email = email;
+        setStatus(status);
+    }
+
+    /**
+     * Sets the free-text status and keeps the processing flag in sync with it
+     */
+    public void setStatus(String status) {
+        this.status = status;
+        this.processingState = ProcessingState.of(status);
+    }
+
+    /**
+     * Drops the processing claim, used when a claimed item is saved through the entity
+     */
+    public void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseUntil = null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now();
+    }
+}
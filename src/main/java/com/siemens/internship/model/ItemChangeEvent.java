@@ -0,0 +1,52 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Outbox entry: one change of one item, written in the transaction that made the change
+ * seq orders the events and is the cursor of the change feed (GET /api/items/changes?since=seq)
+ * version is the item version after the change (null for deletions)
+ */
+@Entity
+@Table(name = "item_change_event", indexes = @Index(name = "idx_item_change_event_occurred_at", columnList = "occurred_at"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 10, nullable = false)
+    private ItemChangeType type;
+
+    private Long version;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public static ItemChangeEvent of(ItemChangeType type, Long itemId, Long version) {
+        return new ItemChangeEvent(null, itemId, type, version, Instant.now());
+    }
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship.model;
+
+/**
+ * Kind of change recorded in an ItemChangeEvent; stored by name
+ */
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
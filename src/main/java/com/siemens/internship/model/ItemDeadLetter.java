@@ -0,0 +1,47 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item that could not be processed, even after retrying
+ * The item itself stays unprocessed, but it is behind the checkpoint once its chunk is done: it is only
+ * tried again when it is changed, or by a full rescan (GET /api/items/process/chunked?full=true)
+ */
+@Entity
+@Table(name = "item_dead_letter", indexes = @Index(name = "idx_item_dead_letter_item", columnList = "item_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemDeadLetter {
+
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String errorMessage;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+}
@@ -0,0 +1,64 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One submitted processing run, persisted so that its progress can be polled while it runs
+ * and its outcome stays available after it finished
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingJob {
+
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private ProcessingJobState state;
+
+    private long processedCount;
+
+    private long failedCount;
+
+    private int chunkCount;
+
+    private double rowsPerSecond;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String errorMessage;
+
+    /**
+     * Instance that runs the job ("item.processing.instance-id")
+     */
+    @Column(length = 64)
+    private String instanceId;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    /**
+     * Last time the instance running the job confirmed it is alive (see ProcessingJobMonitor)
+     */
+    private Instant heartbeatAt;
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship.model;
+
+/**
+ * Lifecycle of a ProcessingJob: QUEUED -> RUNNING -> SUCCEEDED or FAILED
+ */
+public enum ProcessingJobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
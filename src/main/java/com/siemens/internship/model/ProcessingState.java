@@ -0,0 +1,18 @@
+package com.siemens.internship.model;
+
+/**
+ * Compact, indexed processing flag of an Item, stored as its ordinal (0 = PENDING, 1 = PROCESSED)
+ * It is derived from the free-text status, so it never has to be set directly:
+ * status "PROCESSED" means PROCESSED, anything else (including null) means PENDING
+ * New constants must only be appended, the ordinals are persisted
+ */
+public enum ProcessingState {
+    PENDING,
+    PROCESSED;
+
+    public static final String PROCESSED_STATUS = "PROCESSED";
+
+    public static ProcessingState of(String status) {
+        return PROCESSED_STATUS.equals(status) ? PROCESSED : PENDING;
+    }
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship.repository;
+
+import java.time.Instant;
+
+/**
+ * Position of an expired claim in (leaseUntil, id) order, used as a keyset cursor to take over claims
+ */
+public interface ClaimCursor extends ItemCursor {
+
+    Instant getLeaseUntil();
+}
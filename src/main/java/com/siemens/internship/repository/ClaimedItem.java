@@ -0,0 +1,11 @@
+package com.siemens.internship.repository;
+
+/**
+ * Item claimed for processing, with the version it had when it was claimed
+ */
+public interface ClaimedItem {
+
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,65 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ItemChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The record* methods append events for rows changed by set-based statements, with one INSERT ... SELECT
+ * They must run in the transaction that changed the rows (MANDATORY), so an event exists if and only if
+ * its change was committed
+ */
+public interface ItemChangeEventRepository extends JpaRepository<ItemChangeEvent, Long> {
+
+    String INSERT_EVENTS = "INSERT INTO item_change_event (item_id, change_type, version, occurred_at) " +
+            "SELECT id, :type, version, :now FROM item ";
+
+    /**
+     * One event per given item, with the item's current version
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = INSERT_EVENTS + "WHERE id IN (:ids)", nativeQuery = true)
+    int recordChanges(@Param("ids") Collection<Long> ids, @Param("type") String type, @Param("now") Instant now);
+
+    /**
+     * One event per given item stamped with updated_at = now, i.e. written by the statement that used now
+     * (the rows are still locked by that statement, so nobody else can have stamped them since)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = INSERT_EVENTS + "WHERE id IN (:ids) AND updated_at = :now", nativeQuery = true)
+    int recordChangesAt(@Param("ids") Collection<Long> ids, @Param("type") String type, @Param("now") Instant now);
+
+    /**
+     * Events with since < seq <= until, in seq order; the page size is taken from the given Pageable
+     */
+    @Query("SELECT e FROM ItemChangeEvent e WHERE e.seq > :since AND e.seq <= :until ORDER BY e.seq")
+    List<ItemChangeEvent> findBetween(@Param("since") Long since, @Param("until") Long until, Pageable pageable);
+
+    @Query("SELECT e FROM ItemChangeEvent e WHERE e.seq > :since ORDER BY e.seq")
+    List<ItemChangeEvent> findAfter(@Param("since") Long since, Pageable pageable);
+
+    /**
+     * The latest event recorded before the given time (index scan of idx_item_change_event_occurred_at)
+     */
+    Optional<ItemChangeEvent> findFirstByOccurredAtBeforeOrderByOccurredAtDesc(Instant before);
+
+    @Query("SELECT MIN(e.seq) FROM ItemChangeEvent e")
+    Long findFirstSeq();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ItemChangeEvent e WHERE e.occurredAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship.repository;
+
+import java.time.Instant;
+
+/**
+ * Position of an item in (updatedAt, id) order, used as a keyset cursor for incremental processing
+ */
+public interface ItemCursor {
+
+    Long getId();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ItemDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ItemDeadLetterRepository extends JpaRepository<ItemDeadLetter, Long> {
+
+    List<ItemDeadLetter> findByItemId(Long itemId);
+}
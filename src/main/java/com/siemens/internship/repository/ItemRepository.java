@@ -1,14 +1,172 @@
 package com.siemens.internship.repository;
 
+import com.siemens.internship.dto.ItemTableState;
+import com.siemens.internship.dto.StatusCount;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>, ItemRepositoryCustom {
 
-    @Query("SELECT i FROM Item i WHERE i.status <> 'PROCESSED'")
+    @Query("SELECT i FROM Item i WHERE i.processingState = com.siemens.internship.model.ProcessingState.PENDING")
     List<Item> findAllUnprocessedItems();
 
+    List<Item> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Keyset page of unprocessed, unclaimed items changed after the (afterUpdatedAt, afterId) position,
+     * in (updatedAt, id) order; only the cursor columns are selected
+     * Items claimed by another instance are left out, so instances reading the same range spread out
+     * The page size is taken from the given Pageable
+     */
+    @Query("SELECT i.id AS id, i.updatedAt AS updatedAt FROM Item i " +
+            "WHERE i.processingState = com.siemens.internship.model.ProcessingState.PENDING " +
+            "AND (i.updatedAt > :afterUpdatedAt OR (i.updatedAt = :afterUpdatedAt AND i.id > :afterId)) " +
+            "AND (i.leaseUntil IS NULL OR i.leaseUntil < :now) " +
+            "ORDER BY i.updatedAt, i.id")
+    List<ItemCursor> findUnprocessedChangedAfter(@Param("afterUpdatedAt") Instant afterUpdatedAt,
+                                                 @Param("afterId") Long afterId,
+                                                 @Param("now") Instant now,
+                                                 Pageable pageable);
+
+    /**
+     * Keyset page of unprocessed items whose claim expired before now (the claiming instance stopped before
+     * writing them), after the (afterLeaseUntil, afterId) position, in (leaseUntil, id) order
+     * They can be behind the checkpoint, so every run picks them up first
+     */
+    @Query("SELECT i.id AS id, i.updatedAt AS updatedAt, i.leaseUntil AS leaseUntil FROM Item i " +
+            "WHERE i.leaseUntil < :now " +
+            "AND i.processingState = com.siemens.internship.model.ProcessingState.PENDING " +
+            "AND (i.leaseUntil > :afterLeaseUntil OR (i.leaseUntil = :afterLeaseUntil AND i.id > :afterId)) " +
+            "ORDER BY i.leaseUntil, i.id")
+    List<ClaimCursor> findExpiredClaimsAfter(@Param("afterLeaseUntil") Instant afterLeaseUntil,
+                                             @Param("afterId") Long afterId,
+                                             @Param("now") Instant now,
+                                             Pageable pageable);
+
+    /**
+     * Keyset page of unprocessed, unclaimed items: only ids greater than afterId, in ascending order
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.processingState = com.siemens.internship.model.ProcessingState.PENDING " +
+            "AND i.id > :afterId AND (i.leaseUntil IS NULL OR i.leaseUntil < :now) ORDER BY i.id")
+    List<Long> findUnclaimedIdsAfter(@Param("afterId") Long afterId, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Claims the given items for owner until the given time, skipping items that are already processed
+     * or claimed by someone else (an expired claim can be taken over)
+     * The UPDATE is atomic per row, so of two instances claiming the same item only one succeeds;
+     * the claimed rows are found afterwards with findClaimed (owner and until identify the claim)
+     * Claiming does not change the version: it is not an edit, and must not make client updates conflict
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Item i SET i.leaseOwner = :owner, i.leaseUntil = :until " +
+            "WHERE i.id IN :ids AND i.processingState = com.siemens.internship.model.ProcessingState.PENDING " +
+            "AND (i.leaseUntil IS NULL OR i.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("until") Instant until,
+              @Param("now") Instant now);
+
+    @Query("SELECT i.id AS id, i.version AS version FROM Item i " +
+            "WHERE i.id IN :ids AND i.leaseOwner = :owner AND i.leaseUntil = :until ORDER BY i.id")
+    List<ClaimedItem> findClaimed(@Param("ids") Collection<Long> ids,
+                                  @Param("owner") String owner,
+                                  @Param("until") Instant until);
+
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findByIdsOrdered(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gives up the claims of owner on the given items (e.g. dead-lettered or edited ones), so they are not
+     * picked up again as expired claims on every run; items already written have no claim left
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Item i SET i.leaseOwner = NULL, i.leaseUntil = NULL WHERE i.id IN :ids AND i.leaseOwner = :owner")
+    int releaseClaims(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    @Query("SELECT i.version FROM Item i WHERE i.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Item count per status, computed by the database with one GROUP BY (an index-only scan of idx_item_status)
+     */
+    @Query("SELECT new com.siemens.internship.dto.StatusCount(i.status, COUNT(i)) FROM Item i " +
+            "GROUP BY i.status ORDER BY i.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Row count and latest change of the whole table; both aggregates are answered from indexes
+     * (the primary key and idx_item_updated_at) without scanning the rows
+     */
+    @Query("SELECT new com.siemens.internship.dto.ItemTableState(COUNT(i), MAX(i.updatedAt)) FROM Item i")
+    ItemTableState findTableState();
+
+    /**
+     * Keyset page of the ids in [fromId, toId] after afterId, in ascending order, optionally only of items
+     * whose status equals currentStatus (null matches any status); the page size is taken from the Pageable
+     * Only existing rows are listed, so sparse ids cost nothing
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId AND i.id BETWEEN :fromId AND :toId " +
+            "AND (:currentStatus IS NULL OR i.status = :currentStatus) ORDER BY i.id")
+    List<Long> findIdsInRangeAfter(@Param("afterId") Long afterId,
+                                   @Param("fromId") Long fromId,
+                                   @Param("toId") Long toId,
+                                   @Param("currentStatus") String currentStatus,
+                                   Pageable pageable);
+
+    /**
+     * Sets the status of the given items that also have an id in [fromId, toId], optionally only if their
+     * current status equals currentStatus (null matches any status); no entity is loaded
+     * targetState must be ProcessingState.of(targetStatus), bulk updates bypass Item.setStatus
+     * The version is incremented like an entity update would, so concurrent edits of these items conflict
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = :targetStatus, i.processingState = :targetState, i.updatedAt = :now, " +
+            "i.version = i.version + 1 WHERE i.id IN :ids AND i.id BETWEEN :fromId AND :toId AND (:currentStatus IS NULL OR i.status = :currentStatus)")
+    int updateStatusForIds(@Param("ids") Collection<Long> ids,
+                           @Param("fromId") Long fromId,
+                           @Param("toId") Long toId,
+                           @Param("currentStatus") String currentStatus,
+                           @Param("targetStatus") String targetStatus,
+                           @Param("targetState") ProcessingState targetState,
+                           @Param("now") Instant now);
+
+    /**
+     * Deletes an item with a single statement, without loading it first
+     * Returns the number of deleted rows (0 when the item does not exist)
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id")
+    int deleteItemById(@Param("id") Long id);
+
+    /**
+     * Streams all items in id order through an open JDBC cursor instead of loading them into a list
+     * Must be consumed inside a transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAllOrderedById();
+
 }
@@ -0,0 +1,52 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Item queries that Spring Data cannot derive: JDBC batches with a condition per row, dynamic UPDATEs
+ * and projections onto a column list chosen at runtime
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * Item attributes that can be selected by findFields, in their output order
+     */
+    List<String> SELECTABLE_FIELDS = List.of("id", "name", "description", "status", "email");
+
+    /**
+     * Marks the claimed items as PROCESSED and releases their claim, in one JDBC batch
+     * Each row is only written if it still has the version it was claimed with, so an edit made
+     * after the claim is never overwritten (such rows are left alone and count as skipped)
+     * An UPDATED change event is appended for every written row, in the same transaction
+     * Returns the number of rows written
+     */
+    int markProcessed(List<ClaimedItem> items, String owner, Instant now);
+
+    /**
+     * Sets only the given columns of one item with a single UPDATE and returns the updated row,
+     * read from the same statement (no SELECT before or after it); the version is incremented
+     * If expectedVersions is not null (nor empty) the row is only updated while it still has one of those versions
+     * Returns empty if no row was updated (unknown id or other version)
+     */
+    Optional<Item> updateColumns(Long id, Map<String, Object> columns, Collection<Long> expectedVersions, Instant now);
+
+    /**
+     * Selects only the given attributes (from SELECTABLE_FIELDS) of the items matching spec, in the given
+     * order, at most limit rows; a null spec or limit means no restriction
+     * Each row is returned as an attribute name -> value map, in the order of fields
+     */
+    List<Map<String, Object>> findFields(List<String> fields, Specification<Item> spec, Sort sort, Integer limit);
+
+    /**
+     * Same as findFields, for a single item
+     */
+    Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields);
+}
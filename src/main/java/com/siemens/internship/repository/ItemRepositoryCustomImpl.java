@@ -0,0 +1,189 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ProcessingState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * JDBC implementation of ItemRepositoryCustom, picked up by Spring Data as a repository fragment
+ */
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String MARK_PROCESSED_SQL =
+            "UPDATE item SET status = ?, processing_state = ?, updated_at = ?, version = version + 1, " +
+                    "lease_owner = NULL, lease_until = NULL " +
+                    "WHERE id = ? AND version = ? AND lease_owner = ?";
+
+    /**
+     * Outbox events of the rows markProcessed wrote: claimed ids stamped with its updated_at
+     * (the id list placeholders are appended per call)
+     */
+    private static final String RECORD_PROCESSED_SQL =
+            "INSERT INTO item_change_event (item_id, change_type, version, occurred_at) " +
+                    "SELECT id, ?, version, updated_at FROM item WHERE updated_at = ? AND id IN (";
+
+    /**
+     * Columns updateColumns may set; names are spliced into the SQL, so nothing else is accepted
+     */
+    private static final Set<String> UPDATABLE_COLUMNS =
+            Set.of("name", "description", "status", "processing_state", "email");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int markProcessed(List<ClaimedItem> items, String owner, Instant now) {
+        // the column keeps microseconds, and the written rows are found again by their updated_at
+        OffsetDateTime updatedAt = OffsetDateTime.ofInstant(now.truncatedTo(ChronoUnit.MICROS), ZoneOffset.UTC);
+        List<Object[]> rows = items.stream()
+                .map(item -> new Object[]{ProcessingState.PROCESSED_STATUS, ProcessingState.PROCESSED.ordinal(),
+                        updatedAt, item.getId(), item.getVersion(), owner})
+                .toList();
+
+        int written = 0;
+        for (int count : jdbcTemplate.batchUpdate(MARK_PROCESSED_SQL, rows)) {
+            // drivers that cannot report per-row counts return SUCCESS_NO_INFO (-2) for executed rows
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                written++;
+            }
+        }
+
+        if (written > 0) {
+            List<Object> parameters = new ArrayList<>();
+            parameters.add(ItemChangeType.UPDATED.name());
+            parameters.add(updatedAt);
+            items.forEach(item -> parameters.add(item.getId()));
+            jdbcTemplate.update(RECORD_PROCESSED_SQL + "?" + ", ?".repeat(items.size() - 1) + ")", parameters.toArray());
+        }
+        return written;
+    }
+
+    /**
+     * Uses an H2 data change delta table (SELECT ... FROM FINAL TABLE (UPDATE ...)), so the new row
+     * comes back from the UPDATE statement itself and is mapped straight to the entity
+     * (PostgreSQL would express the same with UPDATE ... RETURNING *)
+     */
+    @Override
+    @Transactional
+    public Optional<Item> updateColumns(Long id, Map<String, Object> columns, Collection<Long> expectedVersions, Instant now) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM FINAL TABLE (UPDATE item SET ");
+        List<Object> parameters = new ArrayList<>();
+        columns.forEach((column, value) -> {
+            if (!UPDATABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Column cannot be updated: " + column);
+            }
+            sql.append(column).append(" = ?").append(parameters.size() + 1).append(", ");
+            parameters.add(value);
+        });
+        sql.append("updated_at = ?").append(parameters.size() + 1).append(", version = version + 1");
+        parameters.add(OffsetDateTime.ofInstant(now, ZoneOffset.UTC));
+        sql.append(" WHERE id = ?").append(parameters.size() + 1);
+        parameters.add(id);
+        if (expectedVersions != null && !expectedVersions.isEmpty()) {
+            StringJoiner placeholders = new StringJoiner(", ", " AND version IN (", ")");
+            for (Long version : expectedVersions) {
+                parameters.add(version);
+                placeholders.add("?" + parameters.size());
+            }
+            sql.append(placeholders);
+        }
+        sql.append(")");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Item.class);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        // the native query is untyped: read the rows as List<?> and cast each one
+        List<?> rows = query.getResultList();
+        return rows.stream().findFirst().map(Item.class::cast);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, Specification<Item> spec, Sort sort, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Item> root = query.from(Item.class);
+        query.multiselect(selections(root, fields));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Item> root = query.from(Item.class);
+        query.multiselect(selections(root, fields));
+        query.where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    private static List<Selection<?>> selections(Root<Item> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be selected: " + field);
+            }
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
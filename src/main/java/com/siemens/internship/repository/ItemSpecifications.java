@@ -0,0 +1,55 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Building blocks for item queries with JpaSpecificationExecutor
+ * Every predicate is written so it can use an index where one exists (no functions on indexed columns)
+ */
+public final class ItemSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ItemSpecifications() {
+    }
+
+    public static Specification<Item> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Item> hasEmail(String email) {
+        return (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+
+    /**
+     * Case-insensitive suffix match on the email, which no B-tree index can serve
+     */
+    public static Specification<Item> hasEmailDomain(String domain) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("email")),
+                "%@" + escapeLike(domain.toLowerCase()), LIKE_ESCAPE);
+    }
+
+    /**
+     * Prefix LIKE, which the database turns into a range scan of the name index
+     */
+    public static Specification<Item> nameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("name"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Item> idAtLeast(Long fromId) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("id"), fromId);
+    }
+
+    public static Specification<Item> idAtMost(Long toId) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("id"), toId);
+    }
+
+    public static Specification<Item> idGreaterThan(Long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,26 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ProcessingCheckpointRepository extends JpaRepository<ProcessingCheckpoint, String> {
+
+    /**
+     * Moves the checkpoint forward to (updatedAt, id), never backwards
+     * Returns 0 if the checkpoint does not exist or is already further ahead
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingCheckpoint c SET c.lastUpdatedAt = :updatedAt, c.lastId = :id, c.savedAt = :now " +
+            "WHERE c.name = :name AND (c.lastUpdatedAt < :updatedAt OR (c.lastUpdatedAt = :updatedAt AND c.lastId < :id))")
+    int advance(@Param("name") String name,
+                @Param("updatedAt") Instant updatedAt,
+                @Param("id") Long id,
+                @Param("now") Instant now);
+}
@@ -0,0 +1,71 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.model.ProcessingJobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, Long> {
+
+    /**
+     * Publishes the progress of a running job without loading it
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.processedCount = :processed, j.failedCount = :failed, " +
+            "j.chunkCount = :chunks WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id,
+                       @Param("processed") long processed,
+                       @Param("failed") long failed,
+                       @Param("chunks") int chunks);
+
+    /**
+     * Fails every job of the given instance that is still in one of the given states
+     * (used for jobs orphaned by a restart; jobs of other instances sharing the database are left alone)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.state = com.siemens.internship.model.ProcessingJobState.FAILED, " +
+            "j.errorMessage = :error, j.finishedAt = :now WHERE j.state IN :states AND j.instanceId = :instanceId")
+    int failJobsInStates(@Param("instanceId") String instanceId,
+                         @Param("states") Collection<ProcessingJobState> states,
+                         @Param("error") String error,
+                         @Param("now") Instant now);
+
+    /**
+     * Refreshes the heartbeat of every QUEUED or RUNNING job of the given instance
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.heartbeatAt = :now WHERE j.instanceId = :instanceId AND j.state IN " +
+            "(com.siemens.internship.model.ProcessingJobState.QUEUED, com.siemens.internship.model.ProcessingJobState.RUNNING)")
+    int heartbeat(@Param("instanceId") String instanceId, @Param("now") Instant now);
+
+    /**
+     * Fails every QUEUED or RUNNING job, of any instance, whose heartbeat is older than before (or missing)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.state = com.siemens.internship.model.ProcessingJobState.FAILED, " +
+            "j.errorMessage = :error, j.finishedAt = :now WHERE (j.heartbeatAt IS NULL OR j.heartbeatAt < :before) " +
+            "AND j.state IN (com.siemens.internship.model.ProcessingJobState.QUEUED, " +
+            "com.siemens.internship.model.ProcessingJobState.RUNNING)")
+    int failStaleJobs(@Param("before") Instant before, @Param("error") String error, @Param("now") Instant now);
+
+    /**
+     * Fails the given job if it is still QUEUED or RUNNING, without loading it
+     * (used when recording the outcome through the entity failed)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.state = com.siemens.internship.model.ProcessingJobState.FAILED, " +
+            "j.errorMessage = :error, j.finishedAt = :now WHERE j.id = :id AND j.state IN " +
+            "(com.siemens.internship.model.ProcessingJobState.QUEUED, com.siemens.internship.model.ProcessingJobState.RUNNING)")
+    int failJob(@Param("id") Long id, @Param("error") String error, @Param("now") Instant now);
+}
@@ -0,0 +1,308 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.config.ChangeFeedProperties;
+import com.siemens.internship.config.ExecutorConfig;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeEvent;
+import com.siemens.internship.repository.ItemChangeEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relay of the item_change_event outbox: publishes committed events to long-poll and SSE clients
+ * - Every "item.changes.poll-interval" the relay reads the events after its horizon, in seq order, and
+ *   moves the horizon over them; clients are only ever served events up to the horizon
+ * - A seq that is missing may belong to a transaction that has not committed yet, so the horizon stops
+ *   there for up to "item.changes.gap-timeout" (after that the transaction is taken as rolled back);
+ *   this way a consumer never moves its cursor past an event that shows up later
+ * - Waiting clients are answered from the events just read; clients further behind read their own page
+ * - SSE writes run on the change feed executor, one page per client at a time, so a slow client only
+ *   falls behind itself instead of stalling the relay thread
+ * - Every instance relays every event, including those of writes made by other instances sharing the
+ *   database, so the relay also evicts the items it reads from the local item cache when the cached copy
+ *   is older than the event; other instances' writes are visible here within about a poll interval
+ * - Events older than "item.changes.retention" are deleted every hour
+ */
+@Service
+public class ItemChangeFeed implements SchedulingConfigurer {
+
+    @Autowired
+    private ItemChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeFeedProperties properties;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.CHANGE_FEED_EXECUTOR)
+    private Executor sendExecutor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+
+    private volatile long horizon;
+
+    // first missing seq after the horizon, and since when it has been missing (only used by the relay thread)
+    private long gapSeq;
+    private Instant gapSeenAt;
+
+    /**
+     * Starts at the last event recorded more than a gap timeout ago, so events of transactions that were
+     * still open at startup are not skipped; the events after it are read by the first relay pass
+     */
+    @PostConstruct
+    void init() {
+        Instant settled = Instant.now().minus(properties.getGapTimeout());
+        horizon = changeEventRepository.findFirstByOccurredAtBeforeOrderByOccurredAtDesc(settled)
+                .map(ItemChangeEvent::getSeq)
+                .orElseGet(() -> {
+                    Long first = changeEventRepository.findFirstSeq();
+                    return first == null ? 0 : first - 1;
+                });
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::relay, properties.getPollInterval());
+        registrar.addFixedDelayTask(this::purge, Duration.ofHours(1));
+    }
+
+    /**
+     * Seq up to which every event is committed (or will never be); the cursor for new consumers
+     */
+    public long head() {
+        return horizon;
+    }
+
+    /**
+     * True if events after since have already been deleted by the retention cleanup,
+     * i.e. the consumer has to reload the items instead of catching up
+     * Everything up to the horizon has been published, so with no event left (the cleanup deleted them
+     * all) any since before the horizon has missed events too
+     */
+    public boolean isExpired(long since) {
+        Long first = changeEventRepository.findFirstSeq();
+        long oldestAvailable = first == null ? horizon : Math.min(first - 1, horizon);
+        return since < oldestAvailable;
+    }
+
+    /**
+     * Up to limit published events after since, in seq order
+     */
+    public List<ItemChangeEvent> findSince(long since, int limit) {
+        long until = horizon;
+        if (since >= until) {
+            return List.of();
+        }
+        return changeEventRepository.findBetween(since, until, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Long poll: completes with the events after since as soon as there are any, or with an empty list
+     * after wait
+     */
+    public CompletableFuture<List<ItemChangeEvent>> poll(long since, int limit, Duration wait) {
+        List<ItemChangeEvent> events = findSince(since, limit);
+        if (!events.isEmpty() || wait.isZero()) {
+            return CompletableFuture.completedFuture(events);
+        }
+        CompletableFuture<List<ItemChangeEvent>> result = new CompletableFuture<>();
+        Subscriber waiter = new Subscriber(since, limit, result::complete, true);
+        subscribers.add(waiter);
+        result.completeOnTimeout(List.of(), wait.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((done, ex) -> subscribers.remove(waiter));
+        return result;
+    }
+
+    /**
+     * Server-sent events: every event after since, then the new ones as they are published
+     * Each SSE event is named "item-change" and has the seq as id, so a reconnecting EventSource
+     * resumes where it stopped (Last-Event-ID)
+     * The catch-up and the live events are all handed out by the relay, one page per pass
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(since, properties.getBatchSize(), events -> send(emitter, events), false);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * One relay pass: advances the horizon, then serves every subscriber that is behind it
+     * Long polls are completed right here; SSE pages are handed to the send executor, and a subscriber
+     * whose previous page is still being written is served again by a later pass
+     * A failing pass is logged by the scheduler and the next one retries from the same horizon
+     */
+    void relay() {
+        long previous = horizon;
+        List<ItemChangeEvent> published = advance();
+        long current = horizon;
+        evictChanged(published);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor >= current || subscriber.sending) {
+                continue;
+            }
+            List<ItemChangeEvent> events = subscriber.cursor >= previous
+                    ? published.stream().filter(e -> e.getSeq() > subscriber.cursor).limit(subscriber.limit).toList()
+                    : changeEventRepository.findBetween(subscriber.cursor, current, PageRequest.of(0, subscriber.limit));
+            if (events.isEmpty()) {
+                continue;
+            }
+            if (subscriber.once) {
+                subscriber.listener.accept(events);
+                subscribers.remove(subscriber);
+            } else {
+                subscriber.cursor = events.get(events.size() - 1).getSeq();
+                dispatch(subscriber, events);
+            }
+        }
+    }
+
+    /**
+     * Writes one page to an SSE subscriber on the send executor; the subscriber is skipped by the relay
+     * until the write is done, so its pages are written one at a time and in order
+     */
+    private void dispatch(Subscriber subscriber, List<ItemChangeEvent> events) {
+        subscriber.sending = true;
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    subscriber.listener.accept(events);
+                } catch (IllegalStateException e) {
+                    // the client went away
+                    subscribers.remove(subscriber);
+                } finally {
+                    subscriber.sending = false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            subscribers.remove(subscriber);
+            subscriber.sending = false;
+        }
+    }
+
+    /**
+     * Reads the events after the horizon and moves the horizon over the contiguous ones
+     * Returns the events it moved over
+     */
+    private List<ItemChangeEvent> advance() {
+        int batchSize = properties.getBatchSize();
+        List<ItemChangeEvent> published = new ArrayList<>();
+        List<ItemChangeEvent> page;
+        boolean blocked = false;
+        do {
+            page = changeEventRepository.findAfter(horizon, PageRequest.of(0, batchSize));
+            long next = horizon;
+            for (ItemChangeEvent event : page) {
+                if (event.getSeq() != next + 1 && !gapExpired(next + 1)) {
+                    blocked = true;
+                    break;
+                }
+                next = event.getSeq();
+                published.add(event);
+            }
+            horizon = next;
+        } while (!blocked && page.size() == batchSize);
+        return published;
+    }
+
+    /**
+     * Evicts the cached items that are older than the given events (or deleted by them)
+     * A copy at the event's version or newer was put by a write of this instance and is kept
+     */
+    private void evictChanged(List<ItemChangeEvent> events) {
+        Cache cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        for (ItemChangeEvent event : events) {
+            Cache.ValueWrapper cached = cache.get(event.getItemId());
+            if (cached == null) {
+                continue;
+            }
+            if (event.getVersion() == null || !(cached.get() instanceof Item item)
+                    || item.getVersion() == null || item.getVersion() < event.getVersion()) {
+                cache.evict(event.getItemId());
+            }
+        }
+    }
+
+    /**
+     * Tracks the missing seq; true once it has been missing for longer than the gap timeout
+     */
+    private boolean gapExpired(long missingSeq) {
+        Instant now = Instant.now();
+        if (gapSeenAt == null || gapSeq != missingSeq) {
+            gapSeq = missingSeq;
+            gapSeenAt = now;
+            return false;
+        }
+        return Duration.between(gapSeenAt, now).compareTo(properties.getGapTimeout()) >= 0;
+    }
+
+    void purge() {
+        changeEventRepository.deleteOlderThan(Instant.now().minus(properties.getRetention()));
+    }
+
+    private static void send(SseEmitter emitter, List<ItemChangeEvent> events) {
+        try {
+            for (ItemChangeEvent event : events) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSeq()))
+                        .name("item-change")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            throw new IllegalStateException("Change feed client disconnected", e);
+        }
+    }
+
+    /**
+     * A long-poll request (once) or an SSE connection, with the seq of the last event it received
+     * cursor is only touched by the relay thread after registration; sending is set while a page is written
+     */
+    private static class Subscriber {
+        private volatile long cursor;
+        private volatile boolean sending;
+        private final int limit;
+        private final Consumer<List<ItemChangeEvent>> listener;
+        private final boolean once;
+
+        Subscriber(long cursor, int limit, Consumer<List<ItemChangeEvent>> listener, boolean once) {
+            this.cursor = cursor;
+            this.limit = limit;
+            this.listener = listener;
+            this.once = once;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ItemCreateDTO;
+import jakarta.validation.Constraint;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.net.IDN;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Validator of ItemCreateDTO for bulk payloads, without Bean Validation's per-object metadata lookups
+ * The constraint annotations of ItemCreateDTO are compiled once into a flat list of checks
+ * (getter, test, message), so the messages are the annotation messages
+ * Supports @NotBlank, @Size and @Email on the String fields; any other constraint, group or interpolated
+ * message fails at startup instead of being skipped
+ * @Email has no public rule of its own, so the rule of Hibernate Validator 8 (local part and domain patterns,
+ * IDN and length limits) is copied below and compiled once, together with the annotation's regexp and flags
+ * Errors are listed in field order, then in annotation order
+ */
+@Component
+public class ItemCreateValidator {
+
+    private static final Map<String, Function<ItemCreateDTO, String>> GETTERS = Map.of(
+            "name", ItemCreateDTO::getName,
+            "description", ItemCreateDTO::getDescription,
+            "status", ItemCreateDTO::getStatus,
+            "email", ItemCreateDTO::getEmail);
+
+    private static final String LOCAL_PART_ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~\u0080-\uFFFF-]";
+    private static final String LOCAL_PART_INSIDE_QUOTES_ATOM =
+            "(?:[a-z0-9!#$%&'*.(),<>\\[\\]:;  @+/=?^_`{|}~\u0080-\uFFFF-]|\\\\\\\\|\\\\\\\")";
+    private static final String LOCAL_PART_WORD =
+            "(?:" + LOCAL_PART_ATOM + "+|\"" + LOCAL_PART_INSIDE_QUOTES_ATOM + "+\")";
+    private static final Pattern LOCAL_PART_PATTERN = Pattern.compile(
+            LOCAL_PART_WORD + "(?:\\." + LOCAL_PART_WORD + ")*", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+
+    private static final String DOMAIN_CHARS = "[a-z\u0080-\uFFFF0-9!#$%&'*+/=?^_`{|}~]";
+    private static final String DOMAIN_LABEL = "(?:" + DOMAIN_CHARS + "-*)*" + DOMAIN_CHARS + "++";
+    private static final String IP_V4 = "[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}";
+    private static final String IP_V4_OCTET = "(?:25[0-5]|(?:2[0-4]|1{0,1}[0-9]){0,1}[0-9])";
+    private static final String IP_V4_EMBEDDED = "(?:" + IP_V4_OCTET + "\\.){3,3}" + IP_V4_OCTET;
+    private static final String IP_V6 = "(?:(?:[0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,7}:"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,5}(?::[0-9a-fA-F]{1,4}){1,2}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,4}(?::[0-9a-fA-F]{1,4}){1,3}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,3}(?::[0-9a-fA-F]{1,4}){1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,2}(?::[0-9a-fA-F]{1,4}){1,5}"
+            + "|[0-9a-fA-F]{1,4}:(?:(?::[0-9a-fA-F]{1,4}){1,6})"
+            + "|:(?:(?::[0-9a-fA-F]{1,4}){1,7}|:)"
+            + "|fe80:(?::[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}"
+            + "|::(?:ffff(:0{1,4}){0,1}:){0,1}" + IP_V4_EMBEDDED
+            + "|(?:[0-9a-fA-F]{1,4}:){1,4}:" + IP_V4_EMBEDDED + ")";
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile(
+            DOMAIN_LABEL + "(?:\\." + DOMAIN_LABEL + ")*"
+                    + "|\\[" + IP_V4 + "\\]"
+                    + "|\\[IPv6:" + IP_V6 + "\\]",
+            Pattern.CASE_INSENSITIVE);
+    private static final int MAX_DOMAIN_LENGTH = 255;
+
+    private final List<Check> checks = compile();
+
+    /**
+     * Returns the messages of the violated constraints, an empty list if the item is valid
+     */
+    public List<String> validate(ItemCreateDTO dto) {
+        List<String> errors = null;
+        for (Check check : checks) {
+            if (!check.test.test(check.getter.apply(dto))) {
+                if (errors == null) {
+                    errors = new ArrayList<>(2);
+                }
+                errors.add(check.message);
+            }
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    private static List<Check> compile() {
+        List<Check> checks = new ArrayList<>();
+        for (Field field : ItemCreateDTO.class.getDeclaredFields()) {
+            for (Annotation annotation : field.getDeclaredAnnotations()) {
+                if (!annotation.annotationType().isAnnotationPresent(Constraint.class)) {
+                    continue;
+                }
+                Function<ItemCreateDTO, String> getter = GETTERS.get(field.getName());
+                if (getter == null) {
+                    throw new IllegalStateException("No getter for constrained field " + field.getName());
+                }
+                if (annotation instanceof NotBlank notBlank) {
+                    checks.add(check(field, getter, ItemCreateValidator::isNotBlank, notBlank.message(), notBlank.groups()));
+                } else if (annotation instanceof Size size) {
+                    checks.add(check(field, getter,
+                            value -> value == null || (value.length() >= size.min() && value.length() <= size.max()),
+                            size.message(), size.groups()));
+                } else if (annotation instanceof Email email) {
+                    checks.add(check(field, getter, emailRule(email), email.message(), email.groups()));
+                } else {
+                    throw new IllegalStateException("Unsupported constraint @" + annotation.annotationType().getSimpleName()
+                            + " on ItemCreateDTO." + field.getName());
+                }
+            }
+        }
+        return List.copyOf(checks);
+    }
+
+    private static Check check(Field field, Function<ItemCreateDTO, String> getter, Predicate<String> test,
+                               String message, Class<?>[] groups) {
+        if (message.contains("{") || groups.length > 0) {
+            throw new IllegalStateException("Constraint on ItemCreateDTO." + field.getName()
+                    + " needs message interpolation or groups, which are not supported");
+        }
+        return new Check(getter, test, message);
+    }
+
+    /**
+     * Same rule as @Email in Hibernate Validator: null and "" are valid, otherwise the part before the last '@'
+     * must be a valid local part and the part after it a valid domain, and the value must match regexp (if set)
+     */
+    private static Predicate<String> emailRule(Email email) {
+        if (".*".equals(email.regexp())) {
+            return ItemCreateValidator::isValidEmail;
+        }
+        int flags = 0;
+        for (jakarta.validation.constraints.Pattern.Flag flag : email.flags()) {
+            flags |= flag.getValue();
+        }
+        Pattern pattern = Pattern.compile(email.regexp(), flags);
+        return value -> isValidEmail(value) && (value == null || pattern.matcher(value).matches());
+    }
+
+    private static boolean isValidEmail(String value) {
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+        int at = value.lastIndexOf('@');
+        if (at < 0) {
+            return false;
+        }
+        String localPart = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        return localPart.length() <= MAX_LOCAL_PART_LENGTH
+                && LOCAL_PART_PATTERN.matcher(localPart).matches()
+                && isValidDomain(domain);
+    }
+
+    private static boolean isValidDomain(String domain) {
+        if (domain.endsWith(".")) {
+            return false;
+        }
+        String ascii;
+        try {
+            ascii = IDN.toASCII(domain);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ascii.length() <= MAX_DOMAIN_LENGTH && DOMAIN_PATTERN.matcher(domain).matches();
+    }
+
+    /**
+     * Same rule as @NotBlank: not null and not only characters <= ' ' (what String.trim removes)
+     */
+    private static boolean isNotBlank(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Check {
+        private final Function<ItemCreateDTO, String> getter;
+        private final Predicate<String> test;
+        private final String message;
+
+        Check(Function<ItemCreateDTO, String> getter, Predicate<String> test, String message) {
+            this.getter = getter;
+            this.test = test;
+            this.message = message;
+        }
+    }
+}
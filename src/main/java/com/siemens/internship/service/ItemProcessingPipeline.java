@@ -0,0 +1,441 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.dto.ProcessingProgress;
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeEvent;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ItemDeadLetter;
+import com.siemens.internship.model.ProcessingCheckpoint;
+import com.siemens.internship.model.ProcessingState;
+import com.siemens.internship.repository.ItemDeadLetterRepository;
+import com.siemens.internship.repository.ClaimCursor;
+import com.siemens.internship.repository.ClaimedItem;
+import com.siemens.internship.repository.ItemChangeEventRepository;
+import com.siemens.internship.repository.ItemCursor;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Staged processing pipeline: read page -> write chunk, with bounded memory and failure isolation
+ * - The reader (the calling thread) pages through unprocessed items in (updatedAt, id) order, starting
+ *   after the persisted checkpoint, and hands every page to the processing executor as one write task
+ * - The checkpoint is advanced in chunk order once a chunk is written, so the next run only reads rows
+ *   created or changed since, and an interrupted run resumes after the last chunk it completed
+ * - The checkpoint never passes now - "item.processing.checkpoint-lag": updatedAt is stamped before commit,
+ *   so a row committed late can carry an updatedAt below rows already processed, and is read again only
+ *   while it is still within the lag (processed rows in that window are filtered out, not written twice)
+ * - At most "item.processing.max-in-flight-chunks" pages are read but not yet written; the reader blocks
+ *   on that window, so memory is capped by window x chunk size no matter how large the backlog is
+ * - Every chunk is claimed with a conditional UPDATE (lease owner + expiry) before it is written, so
+ *   instances sharing the database never write the same item; a claim that was not written before its
+ *   lease expired (the instance stopped) is taken over by the next run of any instance
+ * - Writes are conditional on the version read at claim time, so an edit made mid-run is never overwritten
+ * - Every write appends UPDATED events to the item_change_event outbox in its own transaction
+ * - Writes that fail with a transient database error are retried with exponential backoff
+ * - A chunk that still fails is split into single-item writes (each retried the same way), and items
+ *   that keep failing are recorded in the item_dead_letter table instead of failing the whole run
+ */
+@Component
+public class ItemProcessingPipeline {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private ProcessingCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ItemChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProcessingProperties properties;
+
+    @Autowired
+    private ProcessingMetrics metrics;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.ITEM_PROCESSING_EXECUTOR)
+    private Executor executor;
+
+    /**
+     * Name of the checkpoint row used by the chunked processing
+     */
+    public static final String CHECKPOINT = "item-processing";
+
+    private final AtomicLong runSequence = new AtomicLong();
+
+    /**
+     * Marks every unprocessed item changed since the checkpoint as PROCESSED, one set-based UPDATE per chunk
+     * Progress is reported (and the checkpoint advanced) in chunk order, from the calling thread
+     * writtenListener receives the ids of every written chunk (e.g. for cache eviction)
+     * Items are claimed before they are written, so instances sharing the database split the backlog;
+     * claims abandoned by a stopped instance are taken over first, once their lease has expired
+     */
+    public ProcessingReport run(Consumer<ProcessingProgress> progressListener, Consumer<List<Long>> writtenListener) {
+        long start = System.nanoTime();
+        RunTotals totals = new RunTotals();
+        Semaphore window = new Semaphore(properties.getMaxInFlightChunks());
+        Deque<CompletableFuture<ChunkOutcome>> inFlight = new ArrayDeque<>();
+        int chunkSize = properties.getChunkSize();
+        String owner = newClaimOwner();
+        // rows changed after this may still have uncommitted peers with an older updatedAt
+        Instant settled = Instant.now().minus(properties.getCheckpointLag());
+        ProcessingCheckpoint checkpoint = loadCheckpoint();
+        Instant lastUpdatedAt = checkpoint.getLastUpdatedAt();
+        Long lastId = checkpoint.getLastId();
+
+        try {
+            // expired claims can be behind the checkpoint; they are paged with their own keyset cursor, since
+            // the chunks are only claimed once the executor writes them
+            Instant expiredBefore = Instant.now();
+            Instant lastLeaseUntil = Instant.EPOCH;
+            Long lastClaimId = Long.MIN_VALUE;
+            List<ClaimCursor> expired;
+            do {
+                expired = itemRepository.findExpiredClaimsAfter(lastLeaseUntil, lastClaimId, expiredBefore,
+                        PageRequest.of(0, chunkSize));
+                if (expired.isEmpty()) {
+                    break;
+                }
+                ClaimCursor last = expired.get(expired.size() - 1);
+                lastLeaseUntil = last.getLeaseUntil();
+                lastClaimId = last.getId();
+
+                submitChunk(expired, false, owner, window, inFlight, writtenListener);
+                reportCompleted(inFlight, totals, settled, progressListener, false);
+            } while (expired.size() == chunkSize);
+            // written before the changed items are read, which would otherwise list them a second time
+            reportCompleted(inFlight, totals, settled, progressListener, true);
+
+            List<ItemCursor> page;
+            do {
+                page = itemRepository.findUnprocessedChangedAfter(lastUpdatedAt, lastId, Instant.now(),
+                        PageRequest.of(0, chunkSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                ItemCursor last = page.get(page.size() - 1);
+                lastUpdatedAt = last.getUpdatedAt();
+                lastId = last.getId();
+
+                submitChunk(page, true, owner, window, inFlight, writtenListener);
+                reportCompleted(inFlight, totals, settled, progressListener, false);
+            } while (page.size() == chunkSize);
+
+            reportCompleted(inFlight, totals, settled, progressListener, true);
+        } finally {
+            // never return while writes of this run are still running
+            awaitQuietly(inFlight);
+        }
+
+        return ProcessingReport.of(totals.processed, totals.failed, totals.chunks, System.nanoTime() - start);
+    }
+
+    /**
+     * Drops the checkpoint, so the next run scans the whole table again
+     */
+    public void resetCheckpoint() {
+        checkpointRepository.deleteById(CHECKPOINT);
+    }
+
+    /**
+     * Per-item variant that returns the processed items themselves
+     * Pages are processed one at a time (one task per item), so only one page of tasks exists at once;
+     * items that keep failing are dead-lettered and left out of the result
+     * Always scans the whole table, it neither reads nor moves the checkpoint; pages are claimed
+     * the same way as in run, so only the items this run claimed are loaded and written
+     */
+    public List<Item> runPerItem(Consumer<Long> writtenListener) {
+        List<Item> processedItems = new CopyOnWriteArrayList<>();
+        int chunkSize = properties.getChunkSize();
+        String owner = newClaimOwner();
+        Long lastId = Long.MIN_VALUE;
+
+        List<Long> ids;
+        do {
+            ids = itemRepository.findUnclaimedIdsAfter(lastId, Instant.now(), PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+
+            List<ClaimedItem> claimed = claim(ids, owner);
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            Map<Long, Long> claimedVersions = claimed.stream()
+                    .collect(Collectors.toMap(ClaimedItem::getId, ClaimedItem::getVersion));
+            List<CompletableFuture<Void>> futures = new ArrayList<>(claimed.size());
+            for (Item item : itemRepository.findByIdsOrdered(claimedVersions.keySet())) {
+                if (!item.getVersion().equals(claimedVersions.get(item.getId()))) {
+                    // edited between the claim and the load: the edit wins
+                    itemRepository.releaseClaims(List.of(item.getId()), owner);
+                    metrics.skipped(1);
+                    continue;
+                }
+                futures.add(CompletableFuture.runAsync(() -> metrics.timeItem(() -> {
+                    if (writeItem(item, owner)) {
+                        writtenListener.accept(item.getId());
+                        processedItems.add(item);
+                    }
+                }), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } while (ids.size() == chunkSize);
+
+        return processedItems;
+    }
+
+    /**
+     * Hands one page to the processing executor, waiting first if the in-flight window is full
+     */
+    private void submitChunk(List<? extends ItemCursor> page, boolean advancesCheckpoint, String owner, Semaphore window,
+                             Deque<CompletableFuture<ChunkOutcome>> inFlight, Consumer<List<Long>> writtenListener) {
+        acquire(window);
+        inFlight.add(CompletableFuture.supplyAsync(() -> writeChunk(page, advancesCheckpoint, owner, writtenListener), executor)
+                .whenComplete((outcome, ex) -> window.release()));
+    }
+
+    /**
+     * Claims and writes one chunk; if the write fails, isolates the bad rows by writing the items one by one
+     * Items claimed by another instance in the meantime, or edited since they were claimed, are skipped
+     */
+    private ChunkOutcome writeChunk(List<? extends ItemCursor> page, boolean advancesCheckpoint, String owner,
+                                    Consumer<List<Long>> writtenListener) {
+        List<Long> ids = page.stream().map(ItemCursor::getId).toList();
+        List<ClaimedItem> claimed = claim(ids, owner);
+        int updated = 0;
+        int failed = 0;
+
+        if (!claimed.isEmpty()) {
+            Instant now = Instant.now();
+            try {
+                updated = withRetry(() -> metrics.timeChunk(() -> itemRepository.markProcessed(claimed, owner, now)));
+            } catch (RuntimeException chunkFailure) {
+                for (ClaimedItem item : claimed) {
+                    try {
+                        updated += withRetry(() -> itemRepository.markProcessed(List.of(item), owner, now));
+                    } catch (RuntimeException itemFailure) {
+                        deadLetter(item.getId(), owner, itemFailure);
+                        failed++;
+                    }
+                }
+            }
+
+            List<Long> claimedIds = claimed.stream().map(ClaimedItem::getId).toList();
+            if (updated + failed < claimed.size()) {
+                // edited after the claim: left as the client wrote it, and free for the next run
+                itemRepository.releaseClaims(claimedIds, owner);
+            }
+            writtenListener.accept(claimedIds);
+        }
+
+        metrics.processed(updated);
+        metrics.failed(failed);
+        metrics.skipped(ids.size() - updated - failed);
+        ItemCursor last = page.get(page.size() - 1);
+        return new ChunkOutcome(ids.size(), updated, failed, last.getId(),
+                advancesCheckpoint ? last.getUpdatedAt() : null);
+    }
+
+    /**
+     * Saves one item as PROCESSED, releasing its claim; returns false if it was skipped or dead-lettered
+     * The save is version-checked, so an item edited after it was loaded is skipped, not overwritten
+     */
+    private boolean writeItem(Item item, String owner) {
+        item.setStatus(ProcessingState.PROCESSED_STATUS);
+        item.releaseLease();
+        try {
+            withRetry(() -> transactionTemplate.execute(status -> {
+                // flushed here, so the event carries the incremented version
+                Item written = itemRepository.saveAndFlush(item);
+                return changeEventRepository.save(
+                        ItemChangeEvent.of(ItemChangeType.UPDATED, written.getId(), written.getVersion()));
+            }));
+            metrics.processed(1);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            itemRepository.releaseClaims(List.of(item.getId()), owner);
+            metrics.skipped(1);
+            return false;
+        } catch (RuntimeException e) {
+            deadLetter(item.getId(), owner, e);
+            metrics.failed(1);
+            return false;
+        }
+    }
+
+    /**
+     * Claims the given items for owner for one lease duration and returns the items actually claimed,
+     * with the version they had at that moment
+     */
+    private List<ClaimedItem> claim(List<Long> ids, String owner) {
+        Instant now = Instant.now();
+        // the column keeps microseconds, and until is matched by equality when reading the claim back
+        Instant until = now.plus(properties.getLeaseDuration()).truncatedTo(ChronoUnit.MICROS);
+        withRetry(() -> itemRepository.claim(ids, owner, until, now));
+        return itemRepository.findClaimed(ids, owner, until);
+    }
+
+    /**
+     * Claim owner of one run: the instance id plus a per-instance run number, so two runs of the same
+     * instance never mistake each other's claims for their own
+     */
+    private String newClaimOwner() {
+        return properties.getInstanceId() + "#" + runSequence.incrementAndGet();
+    }
+
+    /**
+     * Runs the write, retrying transient database errors with exponential backoff
+     * Any other error, or the last transient one, is rethrown
+     */
+    private <T> T withRetry(Supplier<T> write) {
+        ProcessingProperties.Retry retry = properties.getRetry();
+        long backoffMillis = retry.getInitialBackoff().toMillis();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                // a version conflict will not go away by retrying the same write
+                throw e;
+            } catch (TransientDataAccessException e) {
+                if (attempt >= retry.getMaxAttempts()) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoffMillis = (long) (backoffMillis * retry.getMultiplier());
+            }
+        }
+    }
+
+    /**
+     * Returns the stored checkpoint, creating it at the very beginning if there is none yet
+     */
+    private ProcessingCheckpoint loadCheckpoint() {
+        return checkpointRepository.findById(CHECKPOINT).orElseGet(() -> {
+            ProcessingCheckpoint initial = new ProcessingCheckpoint(CHECKPOINT, Instant.EPOCH, Long.MIN_VALUE, Instant.now());
+            try {
+                return checkpointRepository.save(initial);
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent run created it first
+                return checkpointRepository.findById(CHECKPOINT).orElse(initial);
+            }
+        });
+    }
+
+    /**
+     * Records the failure and releases the claim, so the item is not taken over again as an expired claim
+     */
+    private void deadLetter(Long itemId, String owner, RuntimeException cause) {
+        String message = String.valueOf(cause.getMessage());
+        if (message.length() > ItemDeadLetter.MAX_ERROR_LENGTH) {
+            message = message.substring(0, ItemDeadLetter.MAX_ERROR_LENGTH);
+        }
+        int attempts = cause instanceof TransientDataAccessException ? properties.getRetry().getMaxAttempts() : 1;
+        deadLetterRepository.save(new ItemDeadLetter(null, itemId, message, attempts, Instant.now()));
+        itemRepository.releaseClaims(List.of(itemId), owner);
+    }
+
+    /**
+     * Adds the outcomes of finished chunks to the totals, reports them and advances the checkpoint,
+     * strictly in chunk order (so the checkpoint never skips a chunk that is still being written)
+     * The checkpoint is held at settled when a chunk goes past it
+     * With waitForAll, blocks until every chunk has finished
+     */
+    private void reportCompleted(Deque<CompletableFuture<ChunkOutcome>> inFlight, RunTotals totals, Instant settled,
+                                 Consumer<ProcessingProgress> progressListener, boolean waitForAll) {
+        while (!inFlight.isEmpty() && (waitForAll || inFlight.peekFirst().isDone())) {
+            ChunkOutcome outcome = inFlight.pollFirst().join();
+            totals.processed += outcome.getUpdated();
+            totals.failed += outcome.getFailed();
+            totals.chunks++;
+            if (outcome.getLastUpdatedAt() != null) {
+                if (outcome.getLastUpdatedAt().isAfter(settled)) {
+                    checkpointRepository.advance(CHECKPOINT, settled, Long.MIN_VALUE, Instant.now());
+                } else {
+                    checkpointRepository.advance(CHECKPOINT, outcome.getLastUpdatedAt(), outcome.getLastId(), Instant.now());
+                }
+            }
+            progressListener.accept(new ProcessingProgress(totals.chunks, outcome.getSize(),
+                    totals.processed, totals.failed, outcome.getLastId()));
+        }
+    }
+
+    private static void acquire(Semaphore window) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Processing interrupted", e);
+        }
+    }
+
+    private static void awaitQuietly(Deque<CompletableFuture<ChunkOutcome>> inFlight) {
+        for (CompletableFuture<ChunkOutcome> future : inFlight) {
+            try {
+                future.join();
+            } catch (RuntimeException ignored) {
+                // the run already failed, the first error is the one being reported
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ChunkOutcome {
+        private int size;
+        private int updated;
+        private int failed;
+        private Long lastId;
+        // null for chunks of expired claims, which do not move the checkpoint
+        private Instant lastUpdatedAt;
+    }
+
+    private static class RunTotals {
+        private long processed;
+        private long failed;
+        private int chunks;
+    }
+}
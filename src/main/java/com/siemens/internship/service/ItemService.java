@@ -1,58 +1,323 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.config.ExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.dto.BatchCreateResult;
+import com.siemens.internship.dto.BatchItemOutcome;
+import com.siemens.internship.dto.BatchItemResult;
+import com.siemens.internship.dto.BulkUpdateResult;
 import com.siemens.internship.dto.ItemCreateDTO;
+import com.siemens.internship.dto.ItemFilter;
+import com.siemens.internship.dto.ItemStatusBulkUpdateDTO;
+import com.siemens.internship.dto.ItemTableState;
 import com.siemens.internship.dto.ItemUpdateDTO;
+import com.siemens.internship.dto.ProcessingProgress;
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.dto.StatusCount;
+import com.siemens.internship.exception.BatchAbortedException;
+import com.siemens.internship.exception.ItemNotFoundException;
+import com.siemens.internship.exception.ItemVersionMismatchException;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeEvent;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ProcessingState;
+import com.siemens.internship.repository.ItemChangeEventRepository;
 import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ItemRepositoryCustom;
+import com.siemens.internship.repository.ItemSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class ItemService {
+
+    /**
+     * Batch chunk size from which validation is spread across the fork-join pool
+     */
+    private static final int PARALLEL_VALIDATION_THRESHOLD = 256;
+
     @Autowired
     private ItemRepository itemRepository;
-    private static final ExecutorService executor = Executors.newFixedThreadPool(10);
-    private  List<Item> processedItems = new CopyOnWriteArrayList<>();
-    private  AtomicInteger processedCount = new AtomicInteger(0);;
+    @Autowired
+    private ItemChangeEventRepository changeEventRepository;
+    @Autowired
+    private ProcessingProperties processingProperties;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ItemCreateValidator itemCreateValidator;
+    @Autowired
+    private ItemProcessingPipeline processingPipeline;
+    @Autowired
+    @Qualifier(ExecutorConfig.PROCESSING_RUN_EXECUTOR)
+    private Executor runExecutor;
 
 
+    @Timed(value = "item.service", extraTags = {"operation", "findAll"}, histogram = true)
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * Returns the items matching the filter, in the given order (by id when unsorted), at most limit items
+     * afterId is the keyset cursor: only items with a greater id are returned (only meaningful in id order)
+     * afterId and limit may be null for no bound; the sort must be valid (see resolveSort)
+     * Runs a single query, no count query is issued for the limit
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "search"}, histogram = true)
+    public List<Item> search(ItemFilter filter, Long afterId, Sort sort, Integer limit) {
+        Sort order = sort.isSorted() ? sort : Sort.by("id");
+        return itemRepository.findBy(toSpecification(filter, afterId), query -> limit == null
+                ? query.sortBy(order).all()
+                : query.sortBy(order).limit(limit).all());
+    }
+
+    /**
+     * Field selection variant of search: only the requested attributes are read from the database
+     * fields must be valid (see resolveFields)
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "searchFields"}, histogram = true)
+    public List<Map<String, Object>> searchFields(List<String> fields, ItemFilter filter, Long afterId,
+                                                  Sort sort, Integer limit) {
+        Sort order = sort.isSorted() ? sort : Sort.by("id");
+        return itemRepository.findFields(fields, toSpecification(filter, afterId), order, limit);
+    }
+
+    /**
+     * Number of items matching the filter, counted by the database
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "count"}, histogram = true)
+    public long count(ItemFilter filter) {
+        return filter.isEmpty() ? itemRepository.count() : itemRepository.count(toSpecification(filter, null));
+    }
+
+    @Timed(value = "item.service", extraTags = {"operation", "countByStatus"}, histogram = true)
+    public List<StatusCount> countByStatus() {
+        return itemRepository.countByStatus();
+    }
+
+    /**
+     * Count and latest change of the item table; any insert, update or delete changes at least one of them
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "findTableState"}, histogram = true)
+    public ItemTableState findTableState() {
+        return itemRepository.findTableState();
+    }
+
+    /**
+     * Checks that every sort property is a selectable attribute
+     * Throws IllegalArgumentException naming the first one that is not
+     */
+    public Sort resolveSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!ItemRepositoryCustom.SELECTABLE_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by: " + order.getProperty());
+            }
+        }
+        return sort;
+    }
+
+    /**
+     * Field selection variant of findById; a cached item is used if there is one, otherwise only the
+     * requested columns are read (and nothing is cached, the cache holds whole items)
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "findFieldsById"}, histogram = true)
+    public Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields) {
+        Item cached = itemCache().get(id, Item.class);
+        if (cached == null) {
+            return itemRepository.findFieldsById(id, fields);
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        BeanWrapper wrapper = new BeanWrapperImpl(cached);
+        fields.forEach(field -> row.put(field, wrapper.getPropertyValue(field)));
+        return Optional.of(row);
+    }
+
+    /**
+     * Turns a ?fields= list into the attributes to select: id first (it is always returned, it is
+     * the paging cursor), then the requested ones in their canonical order, without duplicates
+     * Throws IllegalArgumentException naming the first unknown field
+     */
+    public List<String> resolveFields(List<String> requested) {
+        for (String field : requested) {
+            if (!ItemRepositoryCustom.SELECTABLE_FIELDS.contains(field.trim())) {
+                throw new IllegalArgumentException("Unknown field: " + field.trim());
+            }
+        }
+        return ItemRepositoryCustom.SELECTABLE_FIELDS.stream()
+                .filter(field -> field.equals("id") || requested.stream().anyMatch(r -> r.trim().equals(field)))
+                .toList();
+    }
+
+    /**
+     * Hands every item, in id order, to the consumer while reading them from a database cursor
+     * Each item is detached once consumed, so memory use does not depend on the table size
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "streamAll"}, histogram = true)
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAllOrderedById()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    /**
+     * Read-through cached lookup; misses are not cached, so a later insert is visible right away
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "findById"}, histogram = true)
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
 
+    /**
+     * Creates the item and its CREATED change event in one transaction
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "save"}, histogram = true)
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#result.id")
     public Item save(ItemCreateDTO dto) {
         Item item = new Item();
+        applyCreateDTO(item, dto);
+        return transactionTemplate.execute(status -> {
+            Item saved = itemRepository.save(item);
+            changeEventRepository.save(ItemChangeEvent.of(ItemChangeType.CREATED, saved.getId(), saved.getVersion()));
+            return saved;
+        });
+    }
 
-        item.setName(dto.getName());
-        item.setDescription(dto.getDescription());
-        item.setStatus(dto.getStatus());
-        item.setEmail(dto.getEmail());
-        return itemRepository.save(item);
+    /**
+     * Creates (or, with upsert, creates-or-updates by email) many items in one call
+     * Elements are read lazily from the iterator, "item.processing.chunk-size" at a time; each chunk is
+     * validated (in parallel on the fork-join pool once it is large enough) and its valid elements are
+     * written in one transaction so Hibernate can send the INSERTs/UPDATEs as JDBC batches
+     * Upsert matches on email: an element whose email already exists updates that item (the first one
+     * found if several share the email) instead of creating a new one
+     * Each chunk also appends the CREATED / UPDATED change events of its items, in the same transaction
+     * Returns one result per element, in input order
+     * Chunks commit while the iterator is still being read, so the batch is not atomic: if the iterator
+     * throws, the elements read before are still written and a BatchAbortedException carrying their
+     * results is thrown, with the iterator's exception as its cause
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "saveBatch"}, histogram = true)
+    public BatchCreateResult saveBatch(Iterator<ItemCreateDTO> dtos, boolean upsert) {
+        int chunkSize = processingProperties.getChunkSize();
+        List<BatchItemResult> results = new ArrayList<>();
+        List<ItemCreateDTO> chunk = new ArrayList<>(chunkSize);
+
+        int firstIndex = 0;
+        RuntimeException readFailure = null;
+        while (true) {
+            ItemCreateDTO dto;
+            try {
+                if (!dtos.hasNext()) {
+                    break;
+                }
+                dto = dtos.next();
+            } catch (RuntimeException e) {
+                // only reading is caught here, a failed write still fails the call
+                readFailure = e;
+                break;
+            }
+            chunk.add(dto);
+            if (chunk.size() == chunkSize) {
+                results.addAll(validateAndWriteBatchChunk(chunk, firstIndex, upsert));
+                firstIndex += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(validateAndWriteBatchChunk(chunk, firstIndex, upsert));
+        }
+
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        if (readFailure != null) {
+            throw new BatchAbortedException(BatchCreateResult.of(results), readFailure);
+        }
+        return BatchCreateResult.of(results);
     }
 
-    public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+    /**
+     * Deletes the item in one statement and evicts it from the cache
+     * The DELETED change event is appended in the same transaction
+     * Returns false if there was no item with the given id
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "deleteById"}, histogram = true)
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    public boolean deleteById(Long id) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (itemRepository.deleteItemById(id) == 0) {
+                return false;
+            }
+            changeEventRepository.save(ItemChangeEvent.of(ItemChangeType.DELETED, id, null));
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
     }
 
     /**
      * Updates an existing item
      * Skips any fields that are null or blank (only new description can be blank)
-     * Throws an exception if the item is not found
+     * Throws ItemNotFoundException if the item is not found
+     * If expectedVersions is given and does not contain the current version, throws ItemVersionMismatchException
+     * The save is version-checked: if the item changes between the read and the save,
+     * an OptimisticLockingFailureException is thrown instead of overwriting that change
+     * The UPDATED change event is appended in the same transaction
+     * The cached copy is replaced with the saved state
      */
-    public Item updateItem(Long id, ItemUpdateDTO dto) {
+    @Timed(value = "item.service", extraTags = {"operation", "updateItem"}, histogram = true)
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    public Item updateItem(Long id, ItemUpdateDTO dto, Collection<Long> expectedVersions) {
+        return transactionTemplate.execute(status -> applyUpdate(id, dto, expectedVersions));
+    }
+
+    private Item applyUpdate(Long id, ItemUpdateDTO dto, Collection<Long> expectedVersions) {
         Item existingItem = itemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+                .orElseThrow(ItemNotFoundException::new);
+
+        if (expectedVersions != null && !expectedVersions.contains(existingItem.getVersion())) {
+            throw new ItemVersionMismatchException(existingItem.getVersion());
+        }
 
         if (dto.getName() != null && !dto.getName().isBlank()) {
             existingItem.setName(dto.getName());
@@ -70,10 +335,125 @@ public class ItemService {
             existingItem.setEmail(dto.getEmail());
         }
 
-        return itemRepository.save(existingItem);
+        // flushed here, so the version check happens now and the event carries the new version
+        Item saved = itemRepository.saveAndFlush(existingItem);
+        changeEventRepository.save(ItemChangeEvent.of(ItemChangeType.UPDATED, saved.getId(), saved.getVersion()));
+        return saved;
+    }
+
+
+    /**
+     * Partial update: writes only the fields set in the DTO, with one UPDATE that also returns the new row
+     * Applies the same skip rules as updateItem (null or blank fields are skipped, except a blank description)
+     * and the same errors: ItemNotFoundException, ItemVersionMismatchException when expectedVersions are all stale
+     * No entity is loaded first and no dirty checking happens; the cached copy is replaced with the result
+     * The UPDATED change event is appended in the same transaction
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "patchItem"}, histogram = true)
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    public Item patchItem(Long id, ItemUpdateDTO dto, Collection<Long> expectedVersions) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (dto.getName() != null && !dto.getName().isBlank()) {
+            columns.put("name", dto.getName());
+        }
+        if (dto.getDescription() != null) {
+            columns.put("description", dto.getDescription());
+        }
+        if (dto.getStatus() != null && !dto.getStatus().isBlank()) {
+            // bypasses Item.setStatus, so the derived processing state is written alongside
+            columns.put("status", dto.getStatus());
+            columns.put("processing_state", ProcessingState.of(dto.getStatus()).ordinal());
+        }
+        if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
+            columns.put("email", dto.getEmail());
+        }
+
+        if (columns.isEmpty()) {
+            // nothing to write, but the caller still expects the current state (and the version check)
+            Item current = itemRepository.findById(id).orElseThrow(ItemNotFoundException::new);
+            if (expectedVersions != null && !expectedVersions.contains(current.getVersion())) {
+                throw new ItemVersionMismatchException(current.getVersion());
+            }
+            return current;
+        }
+
+        Optional<Item> patched = transactionTemplate.execute(status -> {
+            Optional<Item> updated = itemRepository.updateColumns(id, columns, expectedVersions, Instant.now());
+            updated.ifPresent(item -> changeEventRepository.save(
+                    ItemChangeEvent.of(ItemChangeType.UPDATED, item.getId(), item.getVersion())));
+            return updated;
+        });
+        return patched.orElseThrow(() -> itemRepository.findVersionById(id)
+                        .<RuntimeException>map(ItemVersionMismatchException::new)
+                        .orElseGet(ItemNotFoundException::new));
+    }
+
+
+    /**
+     * Moves every item matching the filter to the target status with set-based UPDATEs
+     * Work is split into chunks of "item.processing.chunk-size" ids (for range filters, keyset pages of
+     * the matching ids), each chunk being one statement in its own transaction, so no entity is ever loaded
+     * Each chunk's transaction also appends the UPDATED change events of the rows it changed
+     * The whole item cache is cleared afterwards, since the affected ids are not known up front
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "updateStatusInBulk"}, histogram = true)
+    public BulkUpdateResult updateStatusInBulk(ItemStatusBulkUpdateDTO dto) {
+        int chunkSize = processingProperties.getChunkSize();
+        long fromId = dto.getFromId() == null ? Long.MIN_VALUE : dto.getFromId();
+        long toId = dto.getToId() == null ? Long.MAX_VALUE : dto.getToId();
+        String currentStatus = dto.getCurrentStatus() == null || dto.getCurrentStatus().isBlank()
+                ? null
+                : dto.getCurrentStatus();
+        ProcessingState targetState = ProcessingState.of(dto.getTargetStatus());
+
+        long affected = 0;
+        int chunks = 0;
+        try {
+            if (dto.getIds() != null && !dto.getIds().isEmpty()) {
+                List<Long> ids = dto.getIds().stream().distinct().toList();
+                for (int start = 0; start < ids.size(); start += chunkSize) {
+                    affected += updateStatusChunk(ids.subList(start, Math.min(start + chunkSize, ids.size())),
+                            fromId, toId, currentStatus, dto.getTargetStatus(), targetState);
+                    chunks++;
+                }
+            } else {
+                // keyset pages of the existing ids in the range, so gaps in the ids cost nothing
+                Long afterId = Long.MIN_VALUE;
+                List<Long> page;
+                do {
+                    page = itemRepository.findIdsInRangeAfter(afterId, fromId, toId, currentStatus,
+                            PageRequest.of(0, chunkSize));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    afterId = page.get(page.size() - 1);
+                    affected += updateStatusChunk(page, fromId, toId, currentStatus, dto.getTargetStatus(), targetState);
+                    chunks++;
+                } while (page.size() == chunkSize);
+            }
+        } finally {
+            // chunks already committed must not be served stale, even if a later chunk failed
+            itemCache().clear();
+        }
+
+        return new BulkUpdateResult(affected, chunks);
     }
 
 
+    /**
+     * One chunk of a bulk status update: the UPDATE of the given ids and their change events, in one transaction
+     */
+    private int updateStatusChunk(List<Long> ids, long fromId, long toId, String currentStatus,
+                                  String targetStatus, ProcessingState targetState) {
+        return transactionTemplate.execute(status -> {
+            // microseconds, as stored: the changed rows are found again by updated_at = now
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            int updated = itemRepository.updateStatusForIds(ids, fromId, toId, currentStatus, targetStatus, targetState, now);
+            changeEventRepository.recordChangesAt(ids, ItemChangeType.UPDATED.name(), now);
+            return updated;
+        });
+    }
+
 
     /**
      * Your Tasks
@@ -114,30 +494,190 @@ public class ItemService {
      *      - Returned the result after all async tasks completed using allOf method
      *      */
 
+    @Timed(value = "item.service", extraTags = {"operation", "processItemsAsync"}, histogram = true)
     @Async
     public CompletableFuture<List<Item>> processItemsAsync() {
+        // Processed items are collected per call, so concurrent runs cannot clobber each other
+        // The pipeline reads one page at a time (no unbounded task list), and an item that keeps
+        // failing is dead-lettered instead of failing the whole run
+        return CompletableFuture.supplyAsync(() -> processingPipeline.runPerItem(id -> itemCache().evict(id)), runExecutor);
+    }
+
+
+    /**
+     * Makes the next chunked run rescan the whole table instead of only the changes since the last run
+     */
+    public void resetProcessingCheckpoint() {
+        processingPipeline.resetCheckpoint();
+    }
+
+    /**
+     * Chunked processing mode for large backlogs
+     * Pages through the unprocessed items changed since the last run (keyset pagination on
+     * (updatedAt, id) from a persisted checkpoint, no OFFSET scans) and marks each chunk as PROCESSED
+     * with one set-based UPDATE, so a run costs in proportion to the delta, not to the table size
+     * Chunks are written by ItemProcessingPipeline: bounded read-ahead, retries and dead-lettering
+     * The chunk size is configured with "item.processing.chunk-size"
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "processItemsInChunks"}, histogram = true)
+    public ProcessingReport processItemsInChunks() {
+        return processItemsInChunks(progress -> { });
+    }
+
+    /**
+     * Same as processItemsInChunks(), but reports a ProcessingProgress record after every chunk
+     * An exception thrown by the listener aborts the run; chunks written so far stay committed
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "processItemsInChunks"}, histogram = true)
+    public ProcessingReport processItemsInChunks(Consumer<ProcessingProgress> progressListener) {
+        return processingPipeline.run(progressListener, this::evictFromCache);
+    }
 
-        List<Item> unprocessedItems = itemRepository.findAllUnprocessedItems();
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+    /**
+     * Runs the chunked processing on the processing run executor, so the caller's thread is not blocked
+     * Failures complete the returned future exceptionally (wrapped in a CompletionException)
+     */
+    @Timed(value = "item.service", extraTags = {"operation", "processItemsInChunks"}, histogram = true)
+    public CompletableFuture<ProcessingReport> processItemsInChunksAsync(Consumer<ProcessingProgress> progressListener) {
+        return CompletableFuture.supplyAsync(() -> processItemsInChunks(progressListener), runExecutor);
+    }
 
-        // Reset processed items and count at every call
-        processedItems = new CopyOnWriteArrayList<>();
-        processedCount = new AtomicInteger(0);
+    /**
+     * Combines the filter criteria (and the keyset cursor) with AND; criteria that are not set are left out
+     */
+    private static Specification<Item> toSpecification(ItemFilter filter, Long afterId) {
+        List<Specification<Item>> criteria = new ArrayList<>();
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            criteria.add(ItemSpecifications.hasStatus(filter.getStatus()));
+        }
+        if (filter.getEmail() != null && !filter.getEmail().isBlank()) {
+            criteria.add(ItemSpecifications.hasEmail(filter.getEmail()));
+        }
+        if (filter.getEmailDomain() != null && !filter.getEmailDomain().isBlank()) {
+            criteria.add(ItemSpecifications.hasEmailDomain(filter.getEmailDomain()));
+        }
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+            criteria.add(ItemSpecifications.nameStartsWith(filter.getNamePrefix()));
+        }
+        if (filter.getFromId() != null) {
+            criteria.add(ItemSpecifications.idAtLeast(filter.getFromId()));
+        }
+        if (filter.getToId() != null) {
+            criteria.add(ItemSpecifications.idAtMost(filter.getToId()));
+        }
+        if (afterId != null) {
+            criteria.add(ItemSpecifications.idGreaterThan(afterId));
+        }
+        return Specification.allOf(criteria);
+    }
+
+    /**
+     * Drops items written by set-based updates, which bypass the cache annotations
+     */
+    private void evictFromCache(Collection<Long> ids) {
+        Cache cache = itemCache();
+        ids.forEach(cache::evict);
+    }
+
+    private Cache itemCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ITEMS_CACHE));
+    }
 
-        for (Item item : unprocessedItems) {
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                item.setStatus("PROCESSED");
-                itemRepository.save(item);
-                processedItems.add(item);
-                processedCount.incrementAndGet();
+    /**
+     * Validates one chunk of batch elements and writes the valid ones; firstIndex is the input index of
+     * the first element
+     * Validation is CPU-only, so chunks of PARALLEL_VALIDATION_THRESHOLD elements or more are split
+     * across the common fork-join pool; smaller ones are not worth the hand-off
+     */
+    private List<BatchItemResult> validateAndWriteBatchChunk(List<ItemCreateDTO> chunk, int firstIndex, boolean upsert) {
+        IntStream positions = IntStream.range(0, chunk.size());
+        if (chunk.size() >= PARALLEL_VALIDATION_THRESHOLD) {
+            positions = positions.parallel();
+        }
+        List<List<String>> errors = positions.mapToObj(i -> itemCreateValidator.validate(chunk.get(i))).toList();
 
-            }, executor).exceptionally(ex -> {
-                throw new CompletionException("Error processing item " + item.getId(), ex);});
-            futures.add(future);
+        List<BatchItemResult> results = new ArrayList<>();
+        Map<Integer, ItemCreateDTO> valid = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors.get(i).isEmpty()) {
+                valid.put(firstIndex + i, chunk.get(i));
+            } else {
+                results.add(BatchItemResult.rejected(firstIndex + i, errors.get(i)));
+            }
         }
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> processedItems);
+        if (!valid.isEmpty()) {
+            results.addAll(writeBatchChunk(valid, upsert));
+        }
+        return results;
     }
 
-}
+    /**
+     * Writes one chunk of valid batch elements (keyed by their input index) in a single transaction
+     */
+    private List<BatchItemResult> writeBatchChunk(Map<Integer, ItemCreateDTO> chunk, boolean upsert) {
+        List<BatchItemResult> results = transactionTemplate.execute(status -> {
+            Map<String, Item> byEmail = new HashMap<>();
+            if (upsert) {
+                List<String> emails = chunk.values().stream().map(ItemCreateDTO::getEmail).distinct().toList();
+                itemRepository.findByEmailIn(emails).forEach(item -> byEmail.putIfAbsent(item.getEmail(), item));
+            }
+
+            Map<Integer, Item> items = new LinkedHashMap<>();
+            Map<Integer, BatchItemOutcome> outcomes = new HashMap<>();
+            chunk.forEach((index, dto) -> {
+                Item item = byEmail.get(dto.getEmail());
+                outcomes.put(index, item == null ? BatchItemOutcome.CREATED : BatchItemOutcome.UPDATED);
+                if (item == null) {
+                    item = new Item();
+                    if (upsert) {
+                        // later elements of the same request with this email update this new item
+                        byEmail.put(dto.getEmail(), item);
+                    }
+                }
+                applyCreateDTO(item, dto);
+                items.put(index, item);
+            });
+
+            itemRepository.saveAll(items.values());
+            // versions of updated items are only incremented on flush, and the events read them from the rows
+            itemRepository.flush();
+            List<Long> created = new ArrayList<>();
+            List<Long> updated = new ArrayList<>();
+            items.forEach((index, item) -> {
+                if (outcomes.get(index) == BatchItemOutcome.CREATED) {
+                    created.add(item.getId());
+                } else if (!created.contains(item.getId())) {
+                    // an item created earlier in this chunk is reported as created only
+                    updated.add(item.getId());
+                }
+            });
+            Instant now = Instant.now();
+            if (!created.isEmpty()) {
+                changeEventRepository.recordChanges(created, ItemChangeType.CREATED.name(), now);
+            }
+            if (!updated.isEmpty()) {
+                changeEventRepository.recordChanges(updated.stream().distinct().toList(), ItemChangeType.UPDATED.name(), now);
+            }
+
+            List<BatchItemResult> chunkResults = new ArrayList<>();
+            items.forEach((index, item) ->
+                    chunkResults.add(new BatchItemResult(index, outcomes.get(index), item.getId(), List.of())));
+            return chunkResults;
+        });
 
+        // updated items may be cached with their old state
+        evictFromCache(results.stream()
+                .filter(result -> result.getOutcome() == BatchItemOutcome.UPDATED)
+                .map(BatchItemResult::getId)
+                .toList());
+        return results;
+    }
+
+    private static void applyCreateDTO(Item item, ItemCreateDTO dto) {
+        item.setName(dto.getName());
+        item.setDescription(dto.getDescription());
+        item.setStatus(dto.getStatus());
+        item.setEmail(dto.getEmail());
+    }
+
+}
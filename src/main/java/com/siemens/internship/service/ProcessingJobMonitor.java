@@ -0,0 +1,56 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.ProcessingJobState;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Liveness of processing jobs, so that a job never stays QUEUED or RUNNING after its instance stopped
+ * - Every "item.processing.job-heartbeat-interval" the instance refreshes the heartbeat of its own jobs,
+ *   then fails the jobs of any instance whose heartbeat is older than "item.processing.job-heartbeat-timeout"
+ * - At startup, jobs still open under this instance's id (a fixed instance-id) were interrupted by the
+ *   restart and are failed at once; with the random default id they are found by their heartbeat instead
+ * Items written before the interruption stay PROCESSED; the next job picks up the rest
+ */
+@Component
+public class ProcessingJobMonitor implements SchedulingConfigurer {
+
+    static final String ORPHANED_ERROR = "Interrupted: the instance running the job stopped";
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    @Autowired
+    private ProcessingProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::check, properties.getJobHeartbeatInterval());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failOrphanedJobs() {
+        Instant now = Instant.now();
+        jobRepository.failJobsInStates(properties.getInstanceId(),
+                List.of(ProcessingJobState.QUEUED, ProcessingJobState.RUNNING), ORPHANED_ERROR, now);
+        jobRepository.failStaleJobs(now.minus(properties.getJobHeartbeatTimeout()), ORPHANED_ERROR, now);
+    }
+
+    /**
+     * One pass: heartbeat of this instance's jobs first, so they are never taken for orphans themselves
+     */
+    void check() {
+        Instant now = Instant.now();
+        jobRepository.heartbeat(properties.getInstanceId(), now);
+        jobRepository.failStaleJobs(now.minus(properties.getJobHeartbeatTimeout()), ORPHANED_ERROR, now);
+    }
+}
@@ -0,0 +1,123 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.exception.ProcessingBusyException;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.model.ProcessingJobState;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs item processing as durable jobs
+ * Each job gets its own ProcessingJob row, and callers get the job id back immediately and poll
+ * for progress instead of waiting; the runs themselves go through ProcessingRunGuard
+ */
+@Service
+public class ProcessingJobService {
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProcessingProperties processingProperties;
+
+    @Autowired
+    private ProcessingRunGuard runGuard;
+
+    // the job in progress, returned by submit() instead of starting another one
+    private Long activeJobId;
+
+    /**
+     * Persists a new RUNNING job and starts it in the background
+     * While a job is in progress, submitting again returns that job instead of a new one; a job
+     * submitted while another chunked run is in progress (/process/chunked or /process/stream) joins it
+     * Throws ProcessingBusyException, without creating a job, if no run can be started (see ProcessingRunGuard)
+     */
+    public synchronized ProcessingJob submit() {
+        Optional<ProcessingJob> active = activeJobId == null ? Optional.empty() : jobRepository.findById(activeJobId)
+                .filter(job -> job.getState() == ProcessingJobState.QUEUED || job.getState() == ProcessingJobState.RUNNING);
+        if (active.isPresent()) {
+            return active.get();
+        }
+
+        ProcessingJob job = new ProcessingJob();
+        // saved as RUNNING before the run starts, so progress updates of the run are never overwritten
+        job.setState(ProcessingJobState.RUNNING);
+        job.setSubmittedAt(Instant.now());
+        job.setStartedAt(job.getSubmittedAt());
+        job.setInstanceId(processingProperties.getInstanceId());
+        job.setHeartbeatAt(job.getSubmittedAt());
+        ProcessingJob saved = jobRepository.save(job);
+        Long jobId = saved.getId();
+
+        CompletableFuture<ProcessingReport> run;
+        try {
+            run = runGuard.runOrJoin(ProcessingRunGuard.CHUNKED,
+                    progress -> jobRepository.updateProgress(jobId, progress.getProcessedCount(), progress.getFailedCount(),
+                            progress.getChunk()),
+                    itemService::processItemsInChunksAsync);
+        } catch (ProcessingBusyException e) {
+            jobRepository.deleteById(jobId);
+            throw e;
+        }
+
+        activeJobId = jobId;
+        run.whenComplete((report, ex) -> finish(jobId, report, ex));
+        return saved;
+    }
+
+    public Optional<ProcessingJob> findById(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * Records the final counts, throughput and error (if any) of the given job once its run is over
+     * Runs as a callback of the run, where an exception would be lost: if the job cannot be read or saved,
+     * it is failed with a single UPDATE instead, and it stops being the job in progress either way
+     */
+    private void finish(Long jobId, ProcessingReport report, Throwable ex) {
+        try {
+            ProcessingJob job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalStateException("Job " + jobId + " not found"));
+            if (ex == null) {
+                job.setState(ProcessingJobState.SUCCEEDED);
+                job.setProcessedCount(report.getProcessedCount());
+                job.setFailedCount(report.getFailedCount());
+                job.setChunkCount(report.getChunkCount());
+                job.setRowsPerSecond(report.getRowsPerSecond());
+            } else {
+                // keep the progress published so far, it reflects the chunks that were committed
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                job.setState(ProcessingJobState.FAILED);
+                job.setErrorMessage(truncate("Processing failed: " + cause.getMessage()));
+            }
+
+            job.setFinishedAt(Instant.now());
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            jobRepository.failJob(jobId, truncate("Recording the job outcome failed: " + e.getMessage()), Instant.now());
+        } finally {
+            synchronized (this) {
+                if (jobId.equals(activeJobId)) {
+                    activeJobId = null;
+                }
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= ProcessingJob.MAX_ERROR_LENGTH
+                ? message
+                : message.substring(0, ProcessingJob.MAX_ERROR_LENGTH);
+    }
+}
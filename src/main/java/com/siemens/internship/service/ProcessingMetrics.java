@@ -0,0 +1,66 @@
+package com.siemens.internship.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters of the item processing runs
+ * - item.processing.item.duration: latency of processing one item (per-item path)
+ * - item.processing.chunk.duration: latency of writing one chunk (chunked path)
+ * - item.processing.items{outcome=processed|failed|skipped}: items handled by all runs
+ *   (skipped = selected for a chunk but already changed by someone else when the chunk was written)
+ */
+@Component
+public class ProcessingMetrics {
+
+    private final Timer itemTimer;
+    private final Timer chunkTimer;
+    private final Counter processed;
+    private final Counter failed;
+    private final Counter skipped;
+
+    public ProcessingMetrics(MeterRegistry registry) {
+        this.itemTimer = Timer.builder("item.processing.item.duration")
+                .description("Time to process a single item")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.chunkTimer = Timer.builder("item.processing.chunk.duration")
+                .description("Time to write one chunk of items")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.processed = itemCounter(registry, "processed");
+        this.failed = itemCounter(registry, "failed");
+        this.skipped = itemCounter(registry, "skipped");
+    }
+
+    public void timeItem(Runnable work) {
+        itemTimer.record(work);
+    }
+
+    public <T> T timeChunk(Supplier<T> work) {
+        return chunkTimer.record(work);
+    }
+
+    public void processed(long count) {
+        processed.increment(count);
+    }
+
+    public void failed(long count) {
+        failed.increment(count);
+    }
+
+    public void skipped(long count) {
+        skipped.increment(count);
+    }
+
+    private static Counter itemCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("item.processing.items")
+                .description("Items handled by processing runs, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
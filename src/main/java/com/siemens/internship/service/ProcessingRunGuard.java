@@ -0,0 +1,91 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.dto.ProcessingProgress;
+import com.siemens.internship.exception.ProcessingBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Admission control of the processing runs triggered through the API
+ * - A trigger for a kind of run that is already in progress joins that run instead of starting a second
+ *   one over the same backlog: it gets the same result, and the progress published from then on
+ * - At most "item.processing.max-concurrent-runs" runs are in progress; a trigger beyond that is refused
+ *   right away with ProcessingBusyException instead of queueing behind the running ones
+ */
+@Service
+public class ProcessingRunGuard {
+
+    /**
+     * The per-item run of GET /process
+     */
+    public static final String PER_ITEM = "per-item";
+
+    /**
+     * The chunked run shared by /process/chunked, /process/stream and processing jobs
+     */
+    public static final String CHUNKED = "chunked";
+
+    @Autowired
+    private ProcessingProperties properties;
+
+    private final Map<String, Run<?>> runs = new HashMap<>();
+
+    /**
+     * Joins the run of the given kind in progress, or starts one with starter (which gets the progress
+     * listener to pass to the run); listener receives the progress of the run either way
+     * Throws ProcessingBusyException when a new run is needed but the limit is reached
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<T> runOrJoin(String kind, Consumer<ProcessingProgress> listener,
+                                                           Function<Consumer<ProcessingProgress>, CompletableFuture<T>> starter) {
+        Run<T> current = (Run<T>) runs.get(kind);
+        if (current != null && !current.result.isDone()) {
+            current.listeners.add(listener);
+            return current.result.copy();
+        }
+
+        runs.values().removeIf(run -> run.result.isDone());
+        if (runs.size() >= properties.getMaxConcurrentRuns()) {
+            throw new ProcessingBusyException(properties.getBusyRetryAfter());
+        }
+
+        Run<T> run = new Run<>();
+        run.listeners.add(listener);
+        run.result = starter.apply(run::publish);
+        runs.put(kind, run);
+        run.result.whenComplete((result, ex) -> release(kind, run));
+        return run.result.copy();
+    }
+
+    private synchronized void release(String kind, Run<?> run) {
+        runs.remove(kind, run);
+    }
+
+    private static class Run<T> {
+        private final List<Consumer<ProcessingProgress>> listeners = new CopyOnWriteArrayList<>();
+        private CompletableFuture<T> result;
+
+        /**
+         * Hands the progress to every listener; a failing listener (e.g. a stream whose client went away)
+         * is dropped, the run goes on for the others
+         */
+        private void publish(ProcessingProgress progress) {
+            for (Consumer<ProcessingProgress> listener : listeners) {
+                try {
+                    listener.accept(progress);
+                } catch (RuntimeException e) {
+                    listeners.remove(listener);
+                }
+            }
+        }
+    }
+}
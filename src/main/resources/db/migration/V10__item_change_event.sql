@@ -0,0 +1,11 @@
+-- Transactional outbox of item changes, read by the change feed in seq order.
+CREATE TABLE IF NOT EXISTS item_change_event (
+    seq         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id     BIGINT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    version     BIGINT,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (seq)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_change_event_occurred_at ON item_change_event (occurred_at);
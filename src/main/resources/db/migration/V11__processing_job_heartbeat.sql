@@ -0,0 +1,4 @@
+-- Heartbeat of processing jobs, so jobs of a stopped instance are failed even when its instance id was random.
+ALTER TABLE processing_job ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP(6) WITH TIME ZONE;
+
+UPDATE processing_job SET heartbeat_at = COALESCE(started_at, submitted_at) WHERE heartbeat_at IS NULL;
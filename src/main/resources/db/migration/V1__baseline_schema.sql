@@ -0,0 +1,12 @@
+-- Schema as Hibernate created it before migrations were introduced.
+-- Existing ./data/itemsdb databases are baselined at this version, so this script only runs on empty databases.
+CREATE SEQUENCE IF NOT EXISTS item_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS item (
+    id          BIGINT NOT NULL,
+    description VARCHAR(255),
+    email       VARCHAR(255),
+    name        VARCHAR(255),
+    status      VARCHAR(255),
+    PRIMARY KEY (id)
+);
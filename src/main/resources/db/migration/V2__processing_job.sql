@@ -0,0 +1,13 @@
+-- Processing jobs. Databases that ran with ddl-auto=update may already have this table.
+CREATE TABLE IF NOT EXISTS processing_job (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    state           VARCHAR(20) NOT NULL,
+    processed_count BIGINT NOT NULL,
+    chunk_count     INTEGER NOT NULL,
+    rows_per_second DOUBLE PRECISION NOT NULL,
+    error_message   VARCHAR(500),
+    submitted_at    TIMESTAMP(6) WITH TIME ZONE,
+    started_at      TIMESTAMP(6) WITH TIME ZONE,
+    finished_at     TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
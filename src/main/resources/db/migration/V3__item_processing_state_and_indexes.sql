@@ -0,0 +1,9 @@
+-- Compact processing flag derived from the free-text status (0 = PENDING, 1 = PROCESSED),
+-- so finding unprocessed items no longer needs a full scan with status <> 'PROCESSED'.
+ALTER TABLE item ADD COLUMN IF NOT EXISTS processing_state TINYINT DEFAULT 0 NOT NULL;
+
+UPDATE item SET processing_state = 1 WHERE status = 'PROCESSED';
+
+CREATE INDEX IF NOT EXISTS idx_item_processing_state ON item (processing_state, id);
+CREATE INDEX IF NOT EXISTS idx_item_status ON item (status);
+CREATE INDEX IF NOT EXISTS idx_item_email ON item (email);
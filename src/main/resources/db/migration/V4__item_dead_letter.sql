@@ -0,0 +1,13 @@
+-- Items that kept failing during processing, and the per-job failure count.
+CREATE TABLE IF NOT EXISTS item_dead_letter (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id       BIGINT NOT NULL,
+    error_message VARCHAR(500),
+    attempts      INTEGER NOT NULL,
+    failed_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_dead_letter_item ON item_dead_letter (item_id);
+
+ALTER TABLE processing_job ADD COLUMN IF NOT EXISTS failed_count BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,12 @@
+-- Change timestamp on items and the persisted high-water mark of incremental processing.
+ALTER TABLE item ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_item_pending_changes ON item (processing_state, updated_at, id);
+
+CREATE TABLE IF NOT EXISTS processing_checkpoint (
+    name            VARCHAR(50) NOT NULL,
+    last_updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_id         BIGINT NOT NULL,
+    saved_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,7 @@
+-- Processing claims, so that instances sharing the database split the backlog instead of racing for it.
+ALTER TABLE item ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(64);
+ALTER TABLE item ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_item_lease_until ON item (lease_until);
+
+ALTER TABLE processing_job ADD COLUMN IF NOT EXISTS instance_id VARCHAR(64);
@@ -0,0 +1,2 @@
+-- Optimistic locking version of items.
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
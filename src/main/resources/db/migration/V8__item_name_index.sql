@@ -0,0 +1,2 @@
+-- Name prefix filters (name LIKE 'abc%') become range scans of this index.
+CREATE INDEX IF NOT EXISTS idx_item_name ON item (name);
@@ -0,0 +1,2 @@
+-- MAX(updated_at), the Last-Modified of item lists, becomes a lookup at the end of this index.
+CREATE INDEX IF NOT EXISTS idx_item_updated_at ON item (updated_at);
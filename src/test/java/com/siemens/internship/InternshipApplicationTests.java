@@ -1,21 +1,58 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.dto.ProcessingReport;
+import com.siemens.internship.controller.RateLimitInterceptor;
+import com.siemens.internship.controller.TokenBucket;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ClaimedItem;
+import com.siemens.internship.repository.ItemDeadLetterRepository;
 import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import com.siemens.internship.service.ItemProcessingPipeline;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingRunGuard;
+import org.h2.tools.Server;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,10 +72,31 @@ public class InternshipApplicationTests {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemDeadLetterRepository itemDeadLetterRepository;
+
+    @Autowired
+    private ProcessingCheckpointRepository processingCheckpointRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProcessingRunGuard processingRunGuard;
+
+    @Autowired
+    private ProcessingProperties processingProperties;
+
     @BeforeEach
     void setUp() {
         //reset DB before each test
         itemRepository.deleteAll();
+        processingCheckpointRepository.deleteAll();
+        //the repository is reset directly, so the item cache has to be reset too
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
 
@@ -73,6 +131,168 @@ public class InternshipApplicationTests {
     }
 
 
+	@Test
+	void testGET_KeysetPages() throws Exception {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+		String cursor = String.valueOf(items.get(1).getId());
+
+		// First page is full, so it carries the cursor of its last item
+		mockMvc.perform(get("/api/items").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(header().string("X-Next-After", cursor));
+
+		// Last page is not full, so there is no next cursor
+		mockMvc.perform(get("/api/items").param("after", cursor).param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].name").value("Item_3"))
+				.andExpect(header().doesNotExist("X-Next-After"));
+	}
+
+	@Test
+	void testGET_InvalidPageLimit() throws Exception {
+		mockMvc.perform(get("/api/items").param("limit", "0"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testGET_SelectedFieldsOnly() throws Exception {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com")
+		));
+
+		// id is always returned; description and email are neither selected nor serialised
+		mockMvc.perform(get("/api/items").param("fields", "status,name").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[{\"id\": " + items.get(0).getId() + ", \"name\": \"Item_1\", \"status\": \"Status_1\"}]", true))
+				.andExpect(header().string("X-Next-After", String.valueOf(items.get(0).getId())));
+
+		mockMvc.perform(get("/api/items").param("fields", "name"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[1].name").value("Item_2"))
+				.andExpect(jsonPath("$[1].description").doesNotExist());
+
+		mockMvc.perform(get("/api/items/{id}", items.get(1).getId()).param("fields", "email"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("{\"id\": " + items.get(1).getId() + ", \"email\": \"a@b2.com\"}", true));
+	}
+
+	@Test
+	void testGET_UnknownFieldIsRejected() throws Exception {
+		mockMvc.perform(get("/api/items").param("fields", "name,version"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().json("[\"Unknown field: version\"]"));
+	}
+
+	@Test
+	void testGET_FilterAndSort() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Alpha_1", "Desc_1", "NEW", "a@siemens.com"),
+				new Item(null, "Alpha_2", "Desc_2", "NEW", "b@other.com"),
+				new Item(null, "Beta_1", "Desc_3", "NEW", "c@Siemens.com"),
+				new Item(null, "Alpha_3", "Desc_4", "DONE", "d@siemens.com")
+		));
+
+		mockMvc.perform(get("/api/items").param("status", "NEW").param("namePrefix", "Alpha").param("sort", "name,desc"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].name").value("Alpha_2"))
+				.andExpect(jsonPath("$[1].name").value("Alpha_1"));
+
+		// The domain match is case-insensitive
+		mockMvc.perform(get("/api/items").param("emailDomain", "siemens.com").param("fields", "name"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3));
+
+		// LIKE wildcards in the prefix are taken literally
+		mockMvc.perform(get("/api/items").param("namePrefix", "%"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	void testGET_InvalidSort() throws Exception {
+		mockMvc.perform(get("/api/items").param("sort", "leaseOwner"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().json("[\"Cannot sort by: leaseOwner\"]"));
+
+		mockMvc.perform(get("/api/items").param("sort", "name").param("after", "1"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testGET_Counts() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "DONE", "a@b3.com")
+		));
+
+		mockMvc.perform(get("/api/items/count"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(3));
+
+		mockMvc.perform(get("/api/items/count").param("status", "NEW"))
+				.andExpect(jsonPath("$.count").value(2));
+
+		mockMvc.perform(get("/api/items/count/by-status"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[{\"status\": \"DONE\", \"count\": 1}, {\"status\": \"NEW\", \"count\": 2}]", true));
+	}
+
+	@Test
+	void testGET_StreamAllItems() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com")
+		));
+
+		MvcResult result = mockMvc.perform(get("/api/items/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		result.getAsyncResult(5000);
+
+		List<String> lines = result.getResponse().getContentAsString().lines().toList();
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(0).contains("\"name\":\"Item_1\""));
+	}
+
+	@Test
+	void testGET_ListNotModifiedUntilTheTableChanges() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		String eTag = mockMvc.perform(get("/api/items"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("Last-Modified"))
+				.andExpect(header().string("Cache-Control", "no-cache"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/items").param("limit", "10").header("If-None-Match", eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		// Any write changes the ETag, a delete included
+		mockMvc.perform(delete("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/items").header("If-None-Match", eTag))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
+	}
+
+
     /*------------------------------------------------------------------------------------------------
                                  TEST  Endpoint: GET /api/items/{id}
     -------------------------------------------------------------------------------------------------*/
@@ -101,6 +321,32 @@ public class InternshipApplicationTests {
                 .andExpect(status().isNotFound());
     }
 
+	@Test
+	void testGET_IdNotModifiedUntilUpdated() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"0\""))
+				.andExpect(header().exists("Last-Modified"));
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()).header("If-None-Match", "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", "\"0\""))
+				.andExpect(content().string(""));
+
+		mockMvc.perform(patch("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()).header("If-None-Match", "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1\""))
+				.andExpect(jsonPath("$.name").value("Item_new"));
+	}
+
 
     /*------------------------------------------------------------------------------------------------
                                  TEST  Endpoint: GET /api/items/process
@@ -146,6 +392,211 @@ public class InternshipApplicationTests {
     }
 
 
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: POST /api/items/process + GET /api/items/process/{jobId}
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testPOST_ProcessJobRunsToCompletion() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+
+		MvcResult submitted = mockMvc.perform(post("/api/items/process"))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists("Location"))
+				.andReturn();
+		long jobId = new ObjectMapper().readTree(submitted.getResponse().getContentAsString()).get("id").asLong();
+
+		// Poll the job until it leaves the QUEUED/RUNNING states
+		String state = "QUEUED";
+		for (int attempt = 0; attempt < 50 && (state.equals("QUEUED") || state.equals("RUNNING")); attempt++) {
+			Thread.sleep(100);
+			String body = mockMvc.perform(get("/api/items/process/{jobId}", jobId))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			state = new ObjectMapper().readTree(body).get("state").asText();
+		}
+
+		assertEquals("SUCCEEDED", state);
+		mockMvc.perform(get("/api/items/process/{jobId}", jobId))
+				.andExpect(jsonPath("$.processedCount").value(3));
+	}
+
+	@Test
+	void testGET_ProcessJobNotFound() throws Exception {
+		mockMvc.perform(get("/api/items/process/{jobId}", 999_999L))
+				.andExpect(status().isNotFound());
+	}
+
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: GET /api/items/process/chunked
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testGET_ProcessChunkedMarksAllItems() throws Exception {
+
+		// The test profile uses a chunk size of 2, so 3 unprocessed items need 2 chunks
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "PROCESSED", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com"),
+				new Item(null, "Item_4", "Desc_4", "Status_4", "a@b4.com")
+		));
+
+		mockMvc.perform(get("/api/items/process/chunked")
+						.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(3))
+				.andExpect(jsonPath("$.chunkCount").value(2));
+
+		assertTrue(itemRepository.findAll().stream().allMatch(item -> "PROCESSED".equals(item.getStatus())));
+
+		// Run-level counters and service timers are published through Actuator
+		mockMvc.perform(get("/actuator/metrics/item.processing.items").param("tag", "outcome:processed"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/metrics/item.service").param("tag", "operation:processItemsInChunks"))
+				.andExpect(status().isOk());
+	}
+
+
+	@Test
+	void testGET_ProcessChunkedDeadLettersFailingItem() throws Exception {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "POISON", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+
+		// The POISON row cannot be marked PROCESSED, so its chunk fails and is retried item by item
+		jdbcTemplate.execute("ALTER TABLE item ADD CONSTRAINT poison_check CHECK (NOT (name = 'POISON' AND status = 'PROCESSED'))");
+		try {
+			mockMvc.perform(get("/api/items/process/chunked"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.processedCount").value(2))
+					.andExpect(jsonPath("$.failedCount").value(1));
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE item DROP CONSTRAINT poison_check");
+		}
+
+		assertEquals(1, itemDeadLetterRepository.findByItemId(items.get(1).getId()).size());
+		assertEquals("PROCESSED", itemRepository.findById(items.get(2).getId()).orElseThrow().getStatus());
+	}
+
+
+	@Test
+	void testGET_ProcessChunkedOnlyTouchesChangesSinceCheckpoint() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(3));
+
+		// The second run only reads the item created after the checkpoint
+		Item added = itemRepository.save(new Item(null, "Item_4", "Desc_4", "Status_4", "a@b4.com"));
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(1))
+				.andExpect(jsonPath("$.chunkCount").value(1));
+
+		assertEquals(added.getId(), processingCheckpointRepository
+				.findById(ItemProcessingPipeline.CHECKPOINT).orElseThrow().getLastId());
+
+		// Nothing changed since, so a third run has nothing to do
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(0))
+				.andExpect(jsonPath("$.chunkCount").value(0));
+	}
+
+
+	@Test
+	void testGET_ProcessChunkedPicksUpLateCommitsWithinCheckpointLag() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com")
+		));
+
+		Duration lag = processingProperties.getCheckpointLag();
+		processingProperties.setCheckpointLag(Duration.ofHours(1));
+		try {
+			mockMvc.perform(get("/api/items/process/chunked"))
+					.andExpect(jsonPath("$.processedCount").value(2));
+
+			// The items are newer than now - lag, so the checkpoint is held behind them
+			assertEquals(Long.MIN_VALUE, processingCheckpointRepository
+					.findById(ItemProcessingPipeline.CHECKPOINT).orElseThrow().getLastId());
+
+			// A row stamped before the processed ones but committed only now, like a slow transaction
+			Item late = itemRepository.save(new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com"));
+			jdbcTemplate.update("UPDATE item SET updated_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP(6)) WHERE id = ?",
+					late.getId());
+
+			mockMvc.perform(get("/api/items/process/chunked"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.processedCount").value(1));
+		} finally {
+			processingProperties.setCheckpointLag(lag);
+		}
+	}
+
+
+	@Test
+	void testGET_ProcessChunkedFullRescanPicksUpSkippedItems() throws Exception {
+
+		Item poison = itemRepository.save(new Item(null, "POISON", "Desc_1", "Status_1", "a@b1.com"));
+
+		jdbcTemplate.execute("ALTER TABLE item ADD CONSTRAINT poison_check CHECK (NOT (name = 'POISON' AND status = 'PROCESSED'))");
+		try {
+			mockMvc.perform(get("/api/items/process/chunked"))
+					.andExpect(jsonPath("$.failedCount").value(1));
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE item DROP CONSTRAINT poison_check");
+		}
+
+		// The dead-lettered item is behind the checkpoint: an incremental run skips it, a full run does not
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(jsonPath("$.processedCount").value(0));
+		mockMvc.perform(get("/api/items/process/chunked").param("full", "true"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(1));
+
+		assertEquals("PROCESSED", itemRepository.findById(poison.getId()).orElseThrow().getStatus());
+	}
+
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: GET /api/items/process/stream
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testGET_ProcessStreamEmitsProgressAndReport() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+
+		MvcResult result = mockMvc.perform(get("/api/items/process/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		result.getAsyncResult(5000);
+
+		// 2 chunk progress records (chunk size 2) followed by the final report
+		List<String> records = result.getResponse().getContentAsString().lines().toList();
+		assertEquals(3, records.size());
+		assertTrue(records.get(2).contains("\"processedCount\":3"));
+	}
+
+
     /*------------------------------------------------------------------------------------------------
                              TEST  Endpoint: POST /api/items/
     -------------------------------------------------------------------------------------------------*/
@@ -224,6 +675,146 @@ public class InternshipApplicationTests {
 	}
 
 
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: POST /api/items/batch
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testPOST_BatchCreateReportsEachElement() throws Exception {
+
+		String requestBody = """
+                    [
+                        {"name": "Item_1", "description": "Desc_1", "status": "Status_1", "email": "a@b1.com"},
+                        {"name": "", "description": "Desc_2", "status": "Status_2", "email": "a@b2.com"},
+                        {"name": "Item_3", "description": "Desc_3", "status": "Status_3", "email": "a@b3.com"}
+                    ]
+                """;
+
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(2))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.results[1].outcome").value("REJECTED"))
+				.andExpect(jsonPath("$.results[1].errors[0]").value("Name must not be blank"));
+
+		assertEquals(2, itemRepository.count());
+	}
+
+	@Test
+	void testPOST_BatchUpsertNdjsonUpdatesByEmail() throws Exception {
+
+		Item existing = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		String requestBody = """
+                {"name": "Item_1_new", "description": "Desc_1", "status": "Status_1", "email": "a@b1.com"}
+                {"name": "Item_2", "description": "Desc_2", "status": "Status_2", "email": "a@b2.com"}
+                """;
+
+		mockMvc.perform(post("/api/items/batch").param("upsert", "true")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated").value(1))
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.results[0].id").value(existing.getId()));
+
+		assertEquals("Item_1_new", itemRepository.findById(existing.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void testPOST_BatchSameMessagesAsSingleCreate() throws Exception {
+
+		String requestBody = """
+                {"name": "Item_name_longer_than_20", "description": "Desc_1", "status": "Status_1", "email": "ab1.com", "extra": {"a": [1]}}
+                {"name": "Item_2", "description": null, "status": " ", "email": "a@b2.com"}
+                """;
+
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rejected").value(2))
+				.andExpect(jsonPath("$.results[0].errors[0]").value("Name cannot exceed 20 characters"))
+				.andExpect(jsonPath("$.results[0].errors[1]").value("Invalid email format"))
+				.andExpect(jsonPath("$.results[1].errors[0]").value("Status must not be blank"));
+
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"name\": {\"first\": \"Item\"}}]"))
+				.andExpect(status().isBadRequest());
+
+		assertEquals(0, itemRepository.count());
+	}
+
+	@Test
+	void testPOST_BatchLargeChunkValidatedInParallel() throws Exception {
+
+		// Every third element has an invalid email; the rest cover the quoted, IP and IDN forms of @Email
+		String[] validEmails = {"a@b.com", "\"a b\"@b.com", "a@[127.0.0.1]", "a@bücher.de"};
+		StringBuilder requestBody = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			String email = i % 3 == 2 ? "a" + i + "@b.com." : validEmails[i % validEmails.length];
+			requestBody.append(String.format(
+					"{\"name\": \"Item_%d\", \"description\": \"Desc\", \"status\": \"NEW\", \"email\": \"%s\"}%n",
+					i, email.replace("\"", "\\\"")));
+		}
+
+		// One chunk of 300 elements is over the parallel validation threshold
+		int chunkSize = processingProperties.getChunkSize();
+		processingProperties.setChunkSize(300);
+		try {
+			mockMvc.perform(post("/api/items/batch")
+							.contentType(MediaType.APPLICATION_NDJSON)
+							.content(requestBody.toString()))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.created").value(200))
+					.andExpect(jsonPath("$.rejected").value(100))
+					.andExpect(jsonPath("$.results.length()").value(300))
+					.andExpect(jsonPath("$.results[1].outcome").value("CREATED"))
+					.andExpect(jsonPath("$.results[2].outcome").value("REJECTED"))
+					.andExpect(jsonPath("$.results[2].errors[0]").value("Invalid email format"))
+					.andExpect(jsonPath("$.results[299].outcome").value("REJECTED"));
+		} finally {
+			processingProperties.setChunkSize(chunkSize);
+		}
+
+		assertEquals(200, itemRepository.count());
+	}
+
+	@Test
+	void testPOST_BatchMalformedBody() throws Exception {
+
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"name\": "))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testPOST_BatchMalformedAfterFirstChunkReportsSavedElements() throws Exception {
+
+		String requestBody = """
+                    [
+                        {"name": "Item_1", "description": "Desc_1", "status": "Status_1", "email": "a@b1.com"},
+                        {"name": "Item_2", "description": "Desc_2", "status": "Status_2", "email": "a@b2.com"},
+                        {"name": "Item_3", "description": "Desc_3", "status": "Status_3", "email": "a@b3.com"},
+                        {"name":
+                """;
+
+		// The first chunk is committed before the error is met; the element read after it is saved too
+		mockMvc.perform(post("/api/items/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.created").value(3))
+				.andExpect(jsonPath("$.results.length()").value(3))
+				.andExpect(jsonPath("$.error").value(startsWith("Malformed request body: ")));
+
+		assertEquals(3, itemRepository.count());
+	}
+
+
 	/*------------------------------------------------------------------------------------------------
                              TEST  Endpoint: PUT /api/items/{id}
     -------------------------------------------------------------------------------------------------*/
@@ -250,6 +841,105 @@ public class InternshipApplicationTests {
 				.andExpect(content().json(expectedItemJson, false));
 	}
 
+	@Test
+	void testPUT_UpdateRefreshesCachedItem() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		// First read populates the cache
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Item_1"));
+
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isOk());
+
+		// Second read is served from the cache and must reflect the update
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Item_new"));
+	}
+
+	@Test
+	void testPUT_IfMatchCurrentVersionUpdates() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		String eTag = mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"0\""))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.header("If-Match", eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1\""));
+
+		// The same (now stale) ETag no longer matches: the second writer is told instead of overwriting
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.header("If-Match", eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_other\"}"))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string("ETag", "\"1\""));
+
+		assertEquals("Item_new", itemRepository.findById(savedItem.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void testPUT_IfMatchListAndWeakETags() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		// If-Match uses the strong comparison: a weak ETag never matches, even for the current version
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.header("If-Match", "W/\"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_weak\"}"))
+				.andExpect(status().isPreconditionFailed());
+
+		// Any ETag of a list may match
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.header("If-Match", "\"7\", W/\"8\", \"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1\""));
+
+		mockMvc.perform(patch("/api/items/{id}", savedItem.getId())
+						.header("If-Match", "\"0\", \"1\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_patched\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"2\""));
+
+		assertEquals("Item_patched", itemRepository.findById(savedItem.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void testPUT_EditDuringProcessingIsNotOverwritten() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		// A processing run claims the item, then a client edits it before the run writes it
+		Instant now = Instant.now();
+		Instant until = now.plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+		itemRepository.claim(List.of(savedItem.getId()), "run-1", until, now);
+		List<ClaimedItem> claimed = itemRepository.findClaimed(List.of(savedItem.getId()), "run-1", until);
+
+		mockMvc.perform(put("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\": \"ON_HOLD\"}"))
+				.andExpect(status().isOk());
+
+		assertEquals(0, itemRepository.markProcessed(claimed, "run-1", Instant.now()));
+		assertEquals("ON_HOLD", itemRepository.findById(savedItem.getId()).orElseThrow().getStatus());
+	}
+
 	@Test
 	void testPUT_UpdateItemIdNotFound() throws Exception {
 
@@ -307,6 +997,163 @@ public class InternshipApplicationTests {
 	}
 
 
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: PATCH /api/items/{id}
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testPATCH_UpdatesOnlyGivenFields() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		// Blank fields are skipped like in PUT, the description is the only one that may be set to blank
+		String requestBody = """
+                    {
+                        "name": " ",
+                        "status": "PROCESSED"
+                    }
+                """;
+
+		Item expectedItem = new Item(savedItem.getId(), "Item_1", "Desc_1", "PROCESSED", "a@b1.com");
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		mockMvc.perform(patch("/api/items/{id}", savedItem.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1\""))
+				.andExpect(content().json(objectMapper.writeValueAsString(expectedItem), false));
+
+		// The derived processing state was written too, so processing has nothing left to do
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(jsonPath("$.processedCount").value(0));
+
+		// The cache holds the patched state
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(jsonPath("$.status").value("PROCESSED"));
+	}
+
+	@Test
+	void testPATCH_StaleIfMatchAndUnknownId() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		mockMvc.perform(patch("/api/items/{id}", savedItem.getId())
+						.header("If-Match", "\"5\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string("ETag", "\"0\""));
+
+		mockMvc.perform(patch("/api/items/{id}", savedItem.getId() + 1000)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_new\"}"))
+				.andExpect(status().isNotFound());
+
+		assertEquals("Item_1", itemRepository.findById(savedItem.getId()).orElseThrow().getName());
+	}
+
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: PATCH /api/items/status
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testPATCH_BulkStatusByCurrentStatus() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+
+		String requestBody = """
+                    {
+                        "currentStatus": "NEW",
+                        "targetStatus": "PROCESSED"
+                    }
+                """;
+
+		mockMvc.perform(patch("/api/items/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affectedCount").value(2));
+
+		assertEquals(2, itemRepository.findAll().stream().filter(item -> "PROCESSED".equals(item.getStatus())).count());
+	}
+
+	@Test
+	void testPATCH_BulkStatusByIds() throws Exception {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com")
+		));
+
+		String requestBody = "{\"ids\": [" + items.get(0).getId() + ", " + items.get(2).getId() + "], \"targetStatus\": \"DONE\"}";
+
+		mockMvc.perform(patch("/api/items/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affectedCount").value(2));
+
+		mockMvc.perform(get("/api/items/{id}", items.get(1).getId()))
+				.andExpect(jsonPath("$.status").value("Status_2"));
+	}
+
+	@Test
+	void testPATCH_BulkStatusBySparseIdRange() throws Exception {
+
+		List<Item> items = itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "NEW", "a@b3.com")
+		));
+
+		// Range over the whole id space: only the existing rows are paged, 2 per chunk, without overflow
+		String requestBody = "{\"fromId\": " + Long.MIN_VALUE + ", \"toId\": " + Long.MAX_VALUE + ", \"targetStatus\": \"DONE\"}";
+
+		mockMvc.perform(patch("/api/items/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affectedCount").value(3))
+				.andExpect(jsonPath("$.chunkCount").value(2));
+
+		items.forEach(item -> assertEquals("DONE", itemRepository.findById(item.getId()).orElseThrow().getStatus()));
+	}
+
+	@Test
+	void testPATCH_BulkStatusToProcessedSkipsProcessing() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "NEW", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "NEW", "a@b2.com")
+		));
+
+		mockMvc.perform(patch("/api/items/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"currentStatus\": \"NEW\", \"targetStatus\": \"PROCESSED\"}"))
+				.andExpect(status().isOk());
+
+		// The bulk update also flips the indexed processing flag, so nothing is left to process
+		mockMvc.perform(get("/api/items/process"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
+	}
+
+	@Test
+	void testPATCH_BulkStatusWithoutFilter() throws Exception {
+
+		mockMvc.perform(patch("/api/items/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"targetStatus\": \"DONE\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().json("[\"At least one filter (ids, id range or current status) is required\"]", false));
+	}
+
+
 	/*------------------------------------------------------------------------------------------------
                              TEST  Endpoint: DELETE /api/items/{id}
     -------------------------------------------------------------------------------------------------*/
@@ -322,6 +1169,19 @@ public class InternshipApplicationTests {
 				.andExpect(status().isNoContent());
 	}
 
+	@Test
+	void testDELETE_EvictsCachedItem() throws Exception {
+
+		Item savedItem = itemRepository.save(new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"));
+
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/items/{id}", savedItem.getId()))
+				.andExpect(status().isNotFound());
+	}
+
 	@Test
 	void testDELETE_IdNOTFound() throws Exception {
 
@@ -333,4 +1193,327 @@ public class InternshipApplicationTests {
 				.andExpect(status().isNotFound());
 	}
 
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Endpoint: GET /api/items/changes
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testChanges_EveryMutationIsInTheFeed() throws Exception {
+
+		// Without since: no events, only the head to start from
+		String head = mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes"))))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"))
+				.andReturn().getResponse().getHeader("X-Next-Since");
+
+		long itemA = createItem("Item_A", "a@b1.com");
+		long itemB = createItem("Item_B", "a@b2.com");
+		mockMvc.perform(put("/api/items/{id}", itemA)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Item_A2\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/items/{id}", itemB))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk());
+
+		List<JsonNode> events = readChanges(Long.parseLong(head), 5);
+		assertEquals(List.of("CREATED", "CREATED", "UPDATED", "DELETED", "UPDATED"),
+				events.stream().map(event -> event.get("type").asText()).toList());
+		assertEquals(List.of(itemA, itemB, itemA, itemB, itemA),
+				events.stream().map(event -> event.get("itemId").asLong()).toList());
+		// the processing write is the second update of A
+		assertEquals(2, events.get(4).get("version").asLong());
+	}
+
+	@Test
+	void testChanges_GoneOnceEveryEventIsPurged() throws Exception {
+
+		String head = mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes"))))
+				.andReturn().getResponse().getHeader("X-Next-Since");
+		createItem("Item_A", "a@b1.com");
+		readChanges(Long.parseLong(head), 1);
+
+		// The retention cleanup deleted every event, including the one after head
+		jdbcTemplate.update("DELETE FROM item_change_event");
+
+		mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes").param("since", head))))
+				.andExpect(status().isGone());
+	}
+
+	@Test
+	void testChanges_StreamSendsEventsFromTheSendExecutor() throws Exception {
+
+		String head = mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes"))))
+				.andReturn().getResponse().getHeader("X-Next-Since");
+		MvcResult stream = mockMvc.perform(get("/api/items/changes/stream").param("since", head))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		long itemA = createItem("Item_A", "a@b1.com");
+
+		// The emitter never completes, so the written events are read from the open response
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		String content = stream.getResponse().getContentAsString();
+		while (!content.contains("event:item-change") && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			content = stream.getResponse().getContentAsString();
+		}
+		assertTrue(content.contains("event:item-change"), "no SSE event within 5 seconds");
+		assertTrue(content.contains("\"itemId\":" + itemA));
+	}
+
+	@Test
+	void testChanges_InvalidLimit() throws Exception {
+		mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes").param("since", "0").param("limit", "0"))))
+				.andExpect(status().isBadRequest());
+	}
+
+	private long createItem(String name, String email) throws Exception {
+		String body = mockMvc.perform(post("/api/items")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"" + name + "\", \"status\": \"NEW\", \"email\": \"" + email + "\"}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return new ObjectMapper().readTree(body).get("id").asLong();
+	}
+
+	/**
+	 * The change feed answers asynchronously, even when the response is known right away
+	 */
+	private MvcResult pollChanges(MockHttpServletRequestBuilder builder) throws Exception {
+		return mockMvc.perform(builder)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+
+	/**
+	 * Long-polls the change feed from since until at least expected events have arrived
+	 */
+	private List<JsonNode> readChanges(long since, int expected) throws Exception {
+		List<JsonNode> events = new ArrayList<>();
+		while (events.size() < expected) {
+			MvcResult result = mockMvc.perform(asyncDispatch(pollChanges(get("/api/items/changes")
+							.param("since", String.valueOf(since)).param("wait", "5"))))
+					.andExpect(status().isOk())
+					.andReturn();
+			JsonNode page = new ObjectMapper().readTree(result.getResponse().getContentAsString());
+			assertFalse(page.isEmpty(), "no change event within the wait time");
+			page.forEach(events::add);
+			since = Long.parseLong(result.getResponse().getHeader("X-Next-Since"));
+		}
+		return events;
+	}
+
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Admission control: rate limits and processing runs
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testRateLimit_RefusesWithRetryAfterOnceTheBucketIsEmpty() throws Exception {
+
+		// 2 requests of burst, then one every 1000 seconds
+		RateLimitInterceptor limiter = new RateLimitInterceptor("write", new TokenBucket(2, 0.001), Set.of("POST"));
+
+		assertTrue(limiter.preHandle(new MockHttpServletRequest("POST", "/api/items"), new MockHttpServletResponse(), null));
+		assertTrue(limiter.preHandle(new MockHttpServletRequest("POST", "/api/items"), new MockHttpServletResponse(), null));
+
+		MockHttpServletResponse refused = new MockHttpServletResponse();
+		assertFalse(limiter.preHandle(new MockHttpServletRequest("POST", "/api/items"), refused, null));
+		assertEquals(429, refused.getStatus());
+		assertTrue(Long.parseLong(refused.getHeader("Retry-After")) > 0);
+
+		// other methods are not limited
+		assertTrue(limiter.preHandle(new MockHttpServletRequest("GET", "/api/items"), new MockHttpServletResponse(), null));
+	}
+
+	@Test
+	void testProcessing_DuplicateTriggersJoinTheRunAndExtraRunsAreRefused() throws Exception {
+
+		CompletableFuture<String> runA = new CompletableFuture<>();
+		CompletableFuture<String> runB = new CompletableFuture<>();
+		AtomicInteger starts = new AtomicInteger();
+		try {
+			CompletableFuture<String> first = processingRunGuard.runOrJoin("test-a", progress -> { },
+					listener -> { starts.incrementAndGet(); return runA; });
+			CompletableFuture<String> duplicate = processingRunGuard.runOrJoin("test-a", progress -> { },
+					listener -> { starts.incrementAndGet(); return new CompletableFuture<>(); });
+			assertEquals(1, starts.get());
+
+			// The test profile allows 2 runs at once: with 2 in progress a new kind of run is refused
+			processingRunGuard.runOrJoin("test-b", progress -> { }, listener -> runB);
+			mockMvc.perform(get("/api/items/process/chunked"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().exists("Retry-After"));
+			mockMvc.perform(get("/api/items/process/stream"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().exists("Retry-After"));
+
+			runA.complete("done");
+			assertEquals("done", first.join());
+			assertEquals("done", duplicate.join());
+		} finally {
+			runA.complete("done");
+			runB.complete("done");
+		}
+
+		// once a run is over, a trigger starts a new one
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk());
+	}
+
+
+	/*------------------------------------------------------------------------------------------------
+                             TEST  Several instances sharing one database
+    -------------------------------------------------------------------------------------------------*/
+	@Test
+	void testProcessing_ExpiredClaimsAreTakenOverOnce() throws Exception {
+
+		itemRepository.saveAll(List.of(
+				new Item(null, "Item_1", "Desc_1", "Status_1", "a@b1.com"),
+				new Item(null, "Item_2", "Desc_2", "Status_2", "a@b2.com"),
+				new Item(null, "Item_3", "Desc_3", "Status_3", "a@b3.com"),
+				new Item(null, "Item_4", "Desc_4", "Status_4", "a@b4.com"),
+				new Item(null, "Item_5", "Desc_5", "Status_5", "a@b5.com")
+		));
+		// claimed by an instance that stopped an hour ago
+		jdbcTemplate.update("UPDATE item SET lease_owner = 'gone#1', lease_until = DATEADD('HOUR', -1, CURRENT_TIMESTAMP)");
+
+		// chunk size 2: 3 chunks of expired claims, and every item is read only once
+		mockMvc.perform(get("/api/items/process/chunked"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processedCount").value(5))
+				.andExpect(jsonPath("$.chunkCount").value(3));
+
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE lease_owner IS NOT NULL", Integer.class));
+	}
+
+	@Test
+	void testProcessing_WriteOfAnotherInstanceEvictsTheCachedItem() throws Exception {
+
+		long id = createItem("Item_A", "a@b1.com");
+		mockMvc.perform(get("/api/items/{id}", id))
+				.andExpect(jsonPath("$.name").value("Item_A"));
+
+		// Another instance sharing the database updates the item and records the change in the outbox
+		jdbcTemplate.update("UPDATE item SET name = 'Item_B', version = version + 1 WHERE id = ?", id);
+		jdbcTemplate.update("INSERT INTO item_change_event (item_id, change_type, version, occurred_at) " +
+				"SELECT id, 'UPDATED', version, CURRENT_TIMESTAMP(6) FROM item WHERE id = ?", id);
+
+		// The relay reads the event and drops the stale copy from this instance's cache
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		String name = "Item_A";
+		while (!name.equals("Item_B") && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			String body = mockMvc.perform(get("/api/items/{id}", id)).andReturn().getResponse().getContentAsString();
+			name = new ObjectMapper().readTree(body).get("name").asText();
+		}
+		assertEquals("Item_B", name);
+		mockMvc.perform(get("/api/items/{id}", id))
+				.andExpect(header().string("ETag", "\"1\""));
+	}
+
+	@Test
+	void testProcessing_TwoInstancesSplitTheBacklog() throws Exception {
+
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Server h2Server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+		String url = "jdbc:h2:tcp://localhost:" + port + "/mem:shared;DB_CLOSE_DELAY=-1";
+
+		// The first instance creates the schema through the migrations, the second one finds it in place
+		try (ConfigurableApplicationContext nodeA = startInstance(url, "--item.processing.instance-id=node-a");
+			 ConfigurableApplicationContext nodeB = startInstance(url, "--item.processing.instance-id=node-b")) {
+
+			nodeA.getBean(JdbcTemplate.class).update(
+					"INSERT INTO item (id, name, description, status, email, processing_state, updated_at, version) " +
+							"SELECT X, CONCAT('Item_', X), 'Desc', 'NEW', CONCAT('user', X, '@example.com'), 0, " +
+							"CURRENT_TIMESTAMP(6), 0 FROM SYSTEM_RANGE(1, 2000)");
+
+			// Both runs start together, so they compete for the same chunks
+			CyclicBarrier start = new CyclicBarrier(2);
+			CompletableFuture<ProcessingReport> runA = CompletableFuture.supplyAsync(() -> {
+				await(start);
+				return nodeA.getBean(ItemService.class).processItemsInChunks();
+			});
+			CompletableFuture<ProcessingReport> runB = CompletableFuture.supplyAsync(() -> {
+				await(start);
+				return nodeB.getBean(ItemService.class).processItemsInChunks();
+			});
+
+			// Every item is written exactly once, and both instances took a share of the backlog
+			long processedA = runA.join().getProcessedCount();
+			long processedB = runB.join().getProcessedCount();
+			assertEquals(2000, processedA + processedB);
+			assertTrue(processedA > 0, "node-a processed nothing");
+			assertTrue(processedB > 0, "node-b processed nothing");
+
+			JdbcTemplate shared = nodeB.getBean(JdbcTemplate.class);
+			assertEquals(2000, shared.queryForObject("SELECT COUNT(*) FROM item WHERE status = 'PROCESSED'", Integer.class));
+			assertEquals(0, shared.queryForObject("SELECT COUNT(*) FROM item WHERE lease_owner IS NOT NULL", Integer.class));
+		} finally {
+			h2Server.stop();
+		}
+	}
+
+	@Test
+	void testProcessing_JobOfAStoppedInstanceIsFailedAfterRestart() throws Exception {
+
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Server h2Server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+		String url = "jdbc:h2:tcp://localhost:" + port + "/mem:restart;DB_CLOSE_DELAY=-1";
+		String insertJob = "INSERT INTO processing_job (state, processed_count, chunk_count, rows_per_second, " +
+				"instance_id, submitted_at, heartbeat_at) VALUES ('RUNNING', 0, 0, 0, ?, CURRENT_TIMESTAMP(6), %s)";
+
+		try {
+			// Default settings: a random instance id, so the restarted instance has a different one
+			try (ConfigurableApplicationContext stopped = startInstance(url)) {
+				String instanceId = stopped.getBean(ProcessingProperties.class).getInstanceId();
+				// a job the instance was running when it died, its last heartbeat an hour ago
+				stopped.getBean(JdbcTemplate.class).update(
+						insertJob.formatted("DATEADD('HOUR', -1, CURRENT_TIMESTAMP(6))"), instanceId);
+				// a job another instance is running right now
+				stopped.getBean(JdbcTemplate.class).update(insertJob.formatted("CURRENT_TIMESTAMP(6)"), "node-alive");
+			}
+
+			try (ConfigurableApplicationContext restarted = startInstance(url)) {
+				List<String> states = restarted.getBean(JdbcTemplate.class)
+						.queryForList("SELECT state FROM processing_job ORDER BY id", String.class);
+				assertEquals(List.of("FAILED", "RUNNING"), states);
+			}
+		} finally {
+			h2Server.stop();
+		}
+	}
+
+	/**
+	 * Starts a second application context on the given database
+	 * The settings are passed as command-line arguments: they have to win over application-test.properties,
+	 * which SpringApplicationBuilder.properties() (default properties) would not
+	 */
+	private static ConfigurableApplicationContext startInstance(String url, String... extraArgs) {
+		List<String> args = new ArrayList<>(List.of("--spring.datasource.url=" + url,
+				"--spring.flyway.enabled=true",
+				"--spring.jpa.hibernate.ddl-auto=none",
+				"--item.processing.chunk-size=20"));
+		args.addAll(List.of(extraArgs));
+		return new SpringApplicationBuilder(InternshipApplication.class)
+				.profiles("test")
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(new String[0]));
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 }